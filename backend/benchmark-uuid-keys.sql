@@ -0,0 +1,103 @@
+-- 对比 VARCHAR(36) 与 uuid 主键的索引大小和连接耗时
+-- 在独立的测试库中执行：\i benchmark-uuid-keys.sql，默认生成 2 万个项目、200 万个任务、400 万个任务标签
+-- 两个 schema 的数据完全相同（id 为按时间递增的 UUIDv7 形式），只有键的类型不同
+-- 运行结束后可执行 DROP SCHEMA bench_varchar CASCADE; DROP SCHEMA bench_uuid CASCADE; 清理
+
+\timing on
+
+DROP SCHEMA IF EXISTS bench_varchar CASCADE;
+DROP SCHEMA IF EXISTS bench_uuid CASCADE;
+CREATE SCHEMA bench_varchar;
+CREATE SCHEMA bench_uuid;
+
+-- 生成数据，前 12 位十六进制为递增序号，模拟 UUIDv7 的时间戳前缀
+CREATE TABLE bench_varchar.projects (id VARCHAR(36) PRIMARY KEY);
+CREATE TABLE bench_varchar.tasks (
+    id VARCHAR(36) PRIMARY KEY,
+    project_id VARCHAR(36) NOT NULL REFERENCES bench_varchar.projects(id),
+    created_at TIMESTAMP NOT NULL
+);
+CREATE TABLE bench_varchar.task_labels (
+    task_id VARCHAR(36) NOT NULL REFERENCES bench_varchar.tasks(id),
+    label VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, label)
+);
+
+INSERT INTO bench_varchar.projects
+SELECT ('00' || lpad(to_hex(i), 10, '0') || '7000' || substr(md5('p' || i), 1, 16))::uuid::text
+FROM generate_series(1, 20000) AS i;
+
+INSERT INTO bench_varchar.tasks
+SELECT ('01' || lpad(to_hex(i), 10, '0') || '7000' || substr(md5('t' || i), 1, 16))::uuid::text,
+       ('00' || lpad(to_hex(i % 20000 + 1), 10, '0') || '7000' || substr(md5('p' || (i % 20000 + 1)), 1, 16))::uuid::text,
+       TIMESTAMP '2024-01-01' + i * INTERVAL '1 second'
+FROM generate_series(1, 2000000) AS i;
+
+INSERT INTO bench_varchar.task_labels
+SELECT t.id, l.label
+FROM bench_varchar.tasks t
+CROSS JOIN (VALUES ('bug'), ('feature')) AS l(label);
+
+CREATE TABLE bench_uuid.projects (id UUID PRIMARY KEY);
+CREATE TABLE bench_uuid.tasks (
+    id UUID PRIMARY KEY,
+    project_id UUID NOT NULL REFERENCES bench_uuid.projects(id),
+    created_at TIMESTAMP NOT NULL
+);
+CREATE TABLE bench_uuid.task_labels (
+    task_id UUID NOT NULL REFERENCES bench_uuid.tasks(id),
+    label VARCHAR(50) NOT NULL,
+    PRIMARY KEY (task_id, label)
+);
+
+INSERT INTO bench_uuid.projects SELECT id::uuid FROM bench_varchar.projects;
+INSERT INTO bench_uuid.tasks SELECT id::uuid, project_id::uuid, created_at FROM bench_varchar.tasks;
+INSERT INTO bench_uuid.task_labels SELECT task_id::uuid, label FROM bench_varchar.task_labels;
+
+-- 与 init-db.sql 相同的二级索引
+CREATE INDEX idx_tasks_project_created ON bench_varchar.tasks (project_id, created_at, id);
+CREATE INDEX idx_task_labels_label ON bench_varchar.task_labels (label, task_id);
+CREATE INDEX idx_tasks_project_created ON bench_uuid.tasks (project_id, created_at, id);
+CREATE INDEX idx_task_labels_label ON bench_uuid.task_labels (label, task_id);
+
+ANALYZE bench_varchar.projects;
+ANALYZE bench_varchar.tasks;
+ANALYZE bench_varchar.task_labels;
+ANALYZE bench_uuid.projects;
+ANALYZE bench_uuid.tasks;
+ANALYZE bench_uuid.task_labels;
+
+-- 表和索引大小
+SELECT n.nspname AS schema_name, c.relname AS relation, c.relkind AS kind,
+       pg_size_pretty(pg_relation_size(c.oid)) AS size
+FROM pg_class c
+JOIN pg_namespace n ON n.oid = c.relnamespace
+WHERE n.nspname IN ('bench_varchar', 'bench_uuid') AND c.relkind IN ('r', 'i')
+ORDER BY c.relname, n.nspname;
+
+-- 连接耗时：每组先执行一次预热缓存，再取 EXPLAIN ANALYZE 的执行时间
+-- 1. 看板列表：500 个项目的任务与标签
+SELECT count(*) FROM bench_varchar.tasks t JOIN bench_varchar.task_labels l ON l.task_id = t.id
+WHERE t.project_id IN (SELECT id FROM bench_varchar.projects ORDER BY id LIMIT 500);
+EXPLAIN ANALYZE
+SELECT count(*) FROM bench_varchar.tasks t JOIN bench_varchar.task_labels l ON l.task_id = t.id
+WHERE t.project_id IN (SELECT id FROM bench_varchar.projects ORDER BY id LIMIT 500);
+
+SELECT count(*) FROM bench_uuid.tasks t JOIN bench_uuid.task_labels l ON l.task_id = t.id
+WHERE t.project_id IN (SELECT id FROM bench_uuid.projects ORDER BY id LIMIT 500);
+EXPLAIN ANALYZE
+SELECT count(*) FROM bench_uuid.tasks t JOIN bench_uuid.task_labels l ON l.task_id = t.id
+WHERE t.project_id IN (SELECT id FROM bench_uuid.projects ORDER BY id LIMIT 500);
+
+-- 2. 全表连接：全部任务、标签与项目
+SELECT count(*) FROM bench_varchar.projects p
+JOIN bench_varchar.tasks t ON t.project_id = p.id JOIN bench_varchar.task_labels l ON l.task_id = t.id;
+EXPLAIN ANALYZE
+SELECT count(*) FROM bench_varchar.projects p
+JOIN bench_varchar.tasks t ON t.project_id = p.id JOIN bench_varchar.task_labels l ON l.task_id = t.id;
+
+SELECT count(*) FROM bench_uuid.projects p
+JOIN bench_uuid.tasks t ON t.project_id = p.id JOIN bench_uuid.task_labels l ON l.task_id = t.id;
+EXPLAIN ANALYZE
+SELECT count(*) FROM bench_uuid.projects p
+JOIN bench_uuid.tasks t ON t.project_id = p.id JOIN bench_uuid.task_labels l ON l.task_id = t.id;
@@ -23,9 +23,11 @@ CREATE SEQUENCE project_id_seq;
 CREATE SEQUENCE project_member_id_seq;
 CREATE SEQUENCE task_id_seq;
 
+-- 主键和外键均为 uuid 类型（16 字节，按字节比较），由应用生成 UUIDv7；已有 VARCHAR(36) 主键的库执行 migrate-uuid-keys.sql 迁移
+
 -- 创建用户表
 CREATE TABLE users (
-    id VARCHAR(36) PRIMARY KEY,
+    id UUID PRIMARY KEY,
     username VARCHAR(50) NOT NULL UNIQUE,
     email VARCHAR(255) NOT NULL UNIQUE,
     password VARCHAR(255) NOT NULL,
@@ -35,8 +37,8 @@ CREATE TABLE users (
 
 -- 创建用户设置表
 CREATE TABLE user_settings (
-    id VARCHAR(36) PRIMARY KEY,
-    user_id VARCHAR(36) NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    id UUID PRIMARY KEY,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     theme VARCHAR(50) NOT NULL DEFAULT 'light',
     notifications_enabled BOOLEAN NOT NULL DEFAULT true,
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -45,7 +47,7 @@ CREATE TABLE user_settings (
 
 -- 创建项目表
 CREATE TABLE projects (
-    id VARCHAR(36) PRIMARY KEY,
+    id UUID PRIMARY KEY,
     name VARCHAR(50) NOT NULL,
     description VARCHAR(500),
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -54,9 +56,9 @@ CREATE TABLE projects (
 
 -- 创建项目成员表
 CREATE TABLE project_members (
-    id VARCHAR(36) PRIMARY KEY,
-    project_id VARCHAR(36) NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
-    user_id VARCHAR(36) NOT NULL REFERENCES users(id) ON DELETE CASCADE,
+    id UUID PRIMARY KEY,
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    user_id UUID NOT NULL REFERENCES users(id) ON DELETE CASCADE,
     role VARCHAR(50) NOT NULL DEFAULT 'MEMBER',
     created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
     updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
@@ -65,8 +67,8 @@ CREATE TABLE project_members (
 
 -- 创建任务表
 CREATE TABLE tasks (
-    id VARCHAR(36) PRIMARY KEY,
-    project_id VARCHAR(36) NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    id UUID PRIMARY KEY,
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
     title VARCHAR(255) NOT NULL,
     description VARCHAR(500) DEFAULT '',
     status VARCHAR(50) NOT NULL DEFAULT 'TODO',
@@ -77,18 +79,43 @@ CREATE TABLE tasks (
 
 -- 创建任务标签表
 CREATE TABLE task_labels (
-    task_id VARCHAR(36) NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
+    task_id UUID NOT NULL REFERENCES tasks(id) ON DELETE CASCADE,
     label VARCHAR(50) NOT NULL,
     PRIMARY KEY (task_id, label)
 );
 
 -- 创建项目标签表
 CREATE TABLE project_labels (
-    project_id VARCHAR(36) NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
     label VARCHAR(50) NOT NULL,
     PRIMARY KEY (project_id, label)
 );
 
+-- 创建项目版本表，看板数据的任何变更都会递增版本号
+CREATE TABLE project_revisions (
+    project_id UUID PRIMARY KEY REFERENCES projects(id) ON DELETE CASCADE,
+    revision BIGINT NOT NULL DEFAULT 0
+);
+
+-- 创建任务计数表，每个项目预置全部状态与优先级组合，随任务写入原地加减
+CREATE TABLE task_counters (
+    project_id UUID NOT NULL REFERENCES projects(id) ON DELETE CASCADE,
+    status VARCHAR(50) NOT NULL,
+    priority VARCHAR(50) NOT NULL,
+    task_count BIGINT NOT NULL DEFAULT 0,
+    PRIMARY KEY (project_id, status, priority)
+);
+
+-- 创建分页查询索引，与 (created_at, id) 游标的排序一致
+CREATE INDEX idx_tasks_project_created ON tasks (project_id, created_at, id);
+CREATE INDEX idx_project_members_project_created ON project_members (project_id, created_at, id);
+CREATE INDEX idx_project_members_user ON project_members (user_id);
+
+-- 创建任务过滤索引，状态、优先级与创建时间条件在同一个索引上做范围扫描
+CREATE INDEX idx_tasks_project_status_priority ON tasks (project_id, status, priority, created_at);
+CREATE INDEX idx_tasks_project_updated ON tasks (project_id, updated_at, id);
+CREATE INDEX idx_task_labels_label ON task_labels (label, task_id);
+
 -- 创建更新时间触发器函数
 CREATE OR REPLACE FUNCTION update_updated_at_column()
 RETURNS TRIGGER AS $$
@@ -0,0 +1,76 @@
+-- 将 VARCHAR(36) 主键和外键迁移为原生 uuid 类型
+-- 适用于由旧版 init-db.sql 或 ddl-auto 创建的库，在停机窗口内以 todo 用户执行：
+--   \i migrate-uuid-keys.sql
+-- 整个迁移在一个事务中完成，任何一步失败都会整体回滚，表数据不受影响
+
+-- 迁移前检查：以下查询应全部返回 0，否则说明存在不是 UUID 格式的 id，需要先处理
+-- SELECT count(*) FROM users WHERE id !~ '^[0-9a-fA-F-]{36}$';
+-- SELECT count(*) FROM projects WHERE id !~ '^[0-9a-fA-F-]{36}$';
+-- SELECT count(*) FROM tasks WHERE id !~ '^[0-9a-fA-F-]{36}$';
+
+BEGIN;
+
+-- 删除引用这些列的全部外键，兼容 init-db.sql 的默认约束名和 Hibernate 生成的约束名
+DO $$
+DECLARE
+    fk RECORD;
+BEGIN
+    FOR fk IN
+        SELECT c.conname, t.relname
+        FROM pg_constraint c
+        JOIN pg_class t ON t.oid = c.conrelid
+        JOIN pg_namespace n ON n.oid = t.relnamespace
+        WHERE c.contype = 'f'
+          AND n.nspname = current_schema()
+          AND t.relname IN ('user_settings', 'project_members', 'tasks', 'task_labels',
+                            'project_labels', 'project_revisions', 'task_counters')
+    LOOP
+        EXECUTE 'ALTER TABLE ' || quote_ident(fk.relname) || ' DROP CONSTRAINT ' || quote_ident(fk.conname);
+    END LOOP;
+END $$;
+
+-- 修改列类型，主键、唯一约束和普通索引随之重建
+ALTER TABLE users ALTER COLUMN id TYPE UUID USING id::uuid;
+ALTER TABLE user_settings ALTER COLUMN id TYPE UUID USING id::uuid;
+ALTER TABLE user_settings ALTER COLUMN user_id TYPE UUID USING user_id::uuid;
+ALTER TABLE projects ALTER COLUMN id TYPE UUID USING id::uuid;
+ALTER TABLE project_members ALTER COLUMN id TYPE UUID USING id::uuid;
+ALTER TABLE project_members ALTER COLUMN project_id TYPE UUID USING project_id::uuid;
+ALTER TABLE project_members ALTER COLUMN user_id TYPE UUID USING user_id::uuid;
+ALTER TABLE tasks ALTER COLUMN id TYPE UUID USING id::uuid;
+ALTER TABLE tasks ALTER COLUMN project_id TYPE UUID USING project_id::uuid;
+ALTER TABLE task_labels ALTER COLUMN task_id TYPE UUID USING task_id::uuid;
+ALTER TABLE project_labels ALTER COLUMN project_id TYPE UUID USING project_id::uuid;
+ALTER TABLE project_revisions ALTER COLUMN project_id TYPE UUID USING project_id::uuid;
+ALTER TABLE task_counters ALTER COLUMN project_id TYPE UUID USING project_id::uuid;
+
+-- 按 init-db.sql 重新创建外键
+ALTER TABLE user_settings ADD CONSTRAINT user_settings_user_id_fkey
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE project_members ADD CONSTRAINT project_members_project_id_fkey
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE;
+ALTER TABLE project_members ADD CONSTRAINT project_members_user_id_fkey
+    FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE;
+ALTER TABLE tasks ADD CONSTRAINT tasks_project_id_fkey
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE;
+ALTER TABLE task_labels ADD CONSTRAINT task_labels_task_id_fkey
+    FOREIGN KEY (task_id) REFERENCES tasks(id) ON DELETE CASCADE;
+ALTER TABLE project_labels ADD CONSTRAINT project_labels_project_id_fkey
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE;
+ALTER TABLE project_revisions ADD CONSTRAINT project_revisions_project_id_fkey
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE;
+ALTER TABLE task_counters ADD CONSTRAINT task_counters_project_id_fkey
+    FOREIGN KEY (project_id) REFERENCES projects(id) ON DELETE CASCADE;
+
+COMMIT;
+
+-- 更新统计信息，让优化器按新的列宽估算代价
+ANALYZE users;
+ANALYZE user_settings;
+ANALYZE projects;
+ANALYZE project_members;
+ANALYZE tasks;
+ANALYZE task_labels;
+ANALYZE project_labels;
+ANALYZE project_revisions;
+ANALYZE task_counters;
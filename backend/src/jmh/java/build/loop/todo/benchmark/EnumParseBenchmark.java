@@ -0,0 +1,43 @@
+package build.loop.todo.benchmark;
+
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 状态与优先级的字符串解析，取值覆盖枚举的首项和末项
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class EnumParseBenchmark {
+    @Param({"backlog", "canceled"})
+    public String status;
+
+    @Param({"low", "high"})
+    public String priority;
+
+    @Benchmark
+    public TaskStatus parseStatus() {
+        return TaskStatus.fromValue(status);
+    }
+
+    @Benchmark
+    public TaskPriority parsePriority() {
+        return TaskPriority.fromValue(priority);
+    }
+}
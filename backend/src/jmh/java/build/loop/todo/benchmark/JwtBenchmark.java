@@ -0,0 +1,71 @@
+package build.loop.todo.benchmark;
+
+import build.loop.todo.config.JwtConfig;
+import build.loop.todo.model.entity.User;
+import build.loop.todo.security.CustomUserDetails;
+import build.loop.todo.service.JwtService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 令牌签发与校验，verifiedCacheSize 为 0 时每次都做签名校验，否则走已验证令牌缓存
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+    @Param({"0", "10000"})
+    public long verifiedCacheSize;
+
+    private JwtService jwtService;
+    private User user;
+    private CustomUserDetails userDetails;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        JwtConfig jwtConfig = new JwtConfig();
+        ReflectionTestUtils.setField(jwtConfig, "secret", "benchmark-256-bit-secret-key-for-jwt-token-signing");
+        ReflectionTestUtils.setField(jwtConfig, "expiration", 3600L);
+        ReflectionTestUtils.setField(jwtConfig, "refreshExpiration", 86400L);
+        jwtService = new JwtService(jwtConfig, new SimpleMeterRegistry(), verifiedCacheSize);
+
+        user = new User();
+        user.setId("0190a5c4-7e1b-7c3d-8f00-000000000001");
+        user.setUsername("benchmark");
+        user.setEmail("benchmark@example.com");
+        userDetails = new CustomUserDetails(user.getId(), user.getUsername(), user.getEmail());
+        token = jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public String extractEmail() {
+        return jwtService.extractEmail(token);
+    }
+
+    @Benchmark
+    public Boolean validateToken() {
+        return jwtService.validateToken(token, userDetails);
+    }
+}
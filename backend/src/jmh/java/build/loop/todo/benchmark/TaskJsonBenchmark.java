@@ -0,0 +1,93 @@
+package build.loop.todo.benchmark;
+
+import build.loop.todo.model.dto.TaskListResponse;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import com.fasterxml.jackson.databind.MapperFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.PropertyNamingStrategies;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.TimeZone;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 任务列表的 JSON 序列化，ObjectMapper 与 application.yml 中的 Jackson 配置一致
+ * 任务数据由固定种子生成，每次运行的输入相同
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class TaskJsonBenchmark {
+    private static final String[] LABELS = {"bug", "feature", "api", "frontend", "backend", "docs"};
+
+    @Param({"10", "1000", "100000"})
+    public int size;
+
+    private ObjectMapper objectMapper;
+    private Task task;
+    private TaskListResponse response;
+
+    @Setup
+    public void setUp() {
+        objectMapper = Jackson2ObjectMapperBuilder.json()
+            .propertyNamingStrategy(PropertyNamingStrategies.SNAKE_CASE)
+            .simpleDateFormat("yyyy-MM-dd HH:mm:ss")
+            .timeZone(TimeZone.getTimeZone("Asia/Shanghai"))
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .featuresToEnable(MapperFeature.DEFAULT_VIEW_INCLUSION)
+            .build();
+
+        Random random = new Random(42);
+        LocalDateTime base = LocalDateTime.of(2024, 12, 19, 10, 0);
+        List<Task> tasks = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            Task t = new Task();
+            t.setId(String.format("0190a5c4-7e1b-7c3d-8f00-%012d", i));
+            t.setTitle("Task " + i + " " + Long.toHexString(random.nextLong()));
+            t.setDescription(random.nextBoolean() ? "Description of task " + i : "");
+            t.setStatus(TaskStatus.values()[random.nextInt(TaskStatus.values().length)]);
+            t.setPriority(TaskPriority.values()[random.nextInt(TaskPriority.values().length)]);
+            t.setLabels(new ArrayList<>(List.of(LABELS[random.nextInt(LABELS.length)], LABELS[random.nextInt(LABELS.length)])));
+            t.setCreatedAt(base.plusSeconds(i));
+            t.setUpdatedAt(base.plusSeconds(i + random.nextInt(86400)));
+            tasks.add(t);
+        }
+        task = tasks.getFirst();
+        response = TaskListResponse.of(tasks, size > 1 ? tasks.getLast().getId() : null);
+    }
+
+    @Benchmark
+    public byte[] serializeTask() throws Exception {
+        return objectMapper.writeValueAsBytes(task);
+    }
+
+    /**
+     * 写入丢弃输出的流，与 HTTP 响应一样流式写出，不计入大数组的拷贝
+     */
+    @Benchmark
+    public void serializeTaskList() throws Exception {
+        objectMapper.writeValue(OutputStream.nullOutputStream(), response);
+    }
+}
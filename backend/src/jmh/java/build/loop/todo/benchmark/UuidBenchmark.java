@@ -0,0 +1,63 @@
+package build.loop.todo.benchmark;
+
+import build.loop.todo.util.UUIDv7;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 主键生成，单线程与所有核心同时生成两种情况，encode 为写入现有缓冲区的无分配路径
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Thread)
+public class UuidBenchmark {
+    private final UUID uuid = UUIDv7.generate();
+    private final byte[] buffer = new byte[36];
+
+    @Benchmark
+    public UUID generate() {
+        return UUIDv7.generate();
+    }
+
+    @Benchmark
+    public String generateString() {
+        return UUIDv7.generateString();
+    }
+
+    @Benchmark
+    public byte[] encode() {
+        UUIDv7.encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 0);
+        return buffer;
+    }
+
+    @Benchmark
+    public String uuidToString() {
+        return uuid.toString();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public UUID generateContended() {
+        return UUIDv7.generate();
+    }
+
+    @Benchmark
+    @Threads(Threads.MAX)
+    public String generateStringContended() {
+        return UUIDv7.generateString();
+    }
+}
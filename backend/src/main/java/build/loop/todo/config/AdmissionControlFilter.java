@@ -0,0 +1,162 @@
+package build.loop.todo.config;
+
+import build.loop.todo.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.AsyncEvent;
+import jakarta.servlet.AsyncListener;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.sql.SQLException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * 虚拟线程模式下的 API 请求准入控制
+ * 虚拟线程没有数量上限，同时处理的请求数由信号量限制为数据库连接池大小，多出的请求在这里排队，
+ * 而不是各自占着事务和内存等在连接池上；排队超时返回 503。
+ * 流式导出等异步响应在异步线程上继续使用数据库连接，许可保留到异步请求结束；
+ * SSE 订阅建立后不再访问数据库，处理方法返回后即释放许可，长连接不占用名额。
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 2)
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+    private static final String API_PREFIX = "/api/";
+
+    private final Semaphore permits;
+    private final long queueTimeoutMillis;
+    private final ObjectMapper objectMapper;
+    private final Counter rejected;
+
+    public AdmissionControlFilter(
+            DataSource dataSource,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${concurrency.admission.max-concurrent:0}") int maxConcurrent,
+            @Value("${concurrency.admission.queue-timeout:5000}") long queueTimeoutMillis
+    ) {
+        int limit = maxConcurrent > 0 ? maxConcurrent : poolSize(dataSource);
+        this.permits = new Semaphore(limit, true);
+        this.queueTimeoutMillis = queueTimeoutMillis;
+        this.objectMapper = objectMapper;
+        this.rejected = Counter.builder("http.admission.rejected").register(meterRegistry);
+        Gauge.builder("http.admission.active", permits, p -> limit - p.availablePermits()).register(meterRegistry);
+        Gauge.builder("http.admission.queued", permits, Semaphore::getQueueLength).register(meterRegistry);
+        log.info("Admission control enabled: {} concurrent API requests", limit);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !request.getRequestURI().startsWith(API_PREFIX);
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        boolean acquired;
+        try {
+            acquired = permits.tryAcquire(queueTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            acquired = false;
+        }
+        if (!acquired) {
+            rejected.increment();
+            reject(response);
+            return;
+        }
+        boolean releaseOnComplete = false;
+        try {
+            filterChain.doFilter(request, response);
+            if (request.isAsyncStarted() && !isEventStream(response)) {
+                request.getAsyncContext().addListener(new ReleaseOnComplete());
+                releaseOnComplete = true;
+            }
+        } finally {
+            if (!releaseOnComplete) {
+                permits.release();
+            }
+        }
+    }
+
+    private static boolean isEventStream(HttpServletResponse response) {
+        String contentType = response.getContentType();
+        return contentType != null && contentType.startsWith(MediaType.TEXT_EVENT_STREAM_VALUE);
+    }
+
+    private void reject(HttpServletResponse response) throws IOException {
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(),
+                new ErrorResponse("SERVICE_UNAVAILABLE", "Server is busy, please retry later"));
+    }
+
+    /**
+     * 异步请求完成、出错或超时时归还许可，只归还一次
+     */
+    private class ReleaseOnComplete implements AsyncListener {
+        private final AtomicBoolean released = new AtomicBoolean();
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            release();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            // 再次 startAsync 会清空监听器，需要重新注册
+            event.getAsyncContext().addListener(this);
+        }
+
+        private void release() {
+            if (released.compareAndSet(false, true)) {
+                permits.release();
+            }
+        }
+    }
+
+    private static int poolSize(DataSource dataSource) {
+        try {
+            return dataSource.unwrap(HikariDataSource.class).getMaximumPoolSize();
+        } catch (SQLException e) {
+            throw new IllegalStateException("Cannot determine connection pool size, set concurrency.admission.max-concurrent", e);
+        }
+    }
+}
@@ -1,11 +1,17 @@
 package build.loop.todo.config;
 
+import build.loop.todo.monitoring.SqlStatementCounter;
 import com.typesafe.config.Config;
 import com.typesafe.config.ConfigFactory;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.metrics.micrometer.MicrometerMetricsTrackerFactory;
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.context.annotation.Primary;
-import org.springframework.boot.jdbc.DataSourceBuilder;
 import javax.sql.DataSource;
 import java.io.File;
 import java.nio.file.Path;
@@ -13,8 +19,28 @@ import java.nio.file.Paths;
 
 @Configuration
 public class DatabaseConfig {
+    // 连接池默认值，config.conf 中的 database.pool 会覆盖对应项
+    private static final Config POOL_DEFAULTS = ConfigFactory.parseString("""
+            name = "todo-pool"
+            maximum-pool-size = 10
+            minimum-idle = 10
+            connection-timeout = 30s
+            idle-timeout = 10m
+            max-lifetime = 30m
+            keepalive-time = 0
+            validation-timeout = 5s
+            leak-detection-threshold = 60s
+            prepare-threshold = 5
+            prepared-statement-cache-queries = 256
+            prepared-statement-cache-size-mib = 5
+            """);
 
-    private Config loadConfig() {
+    @Bean
+    public Config appConfig(@Value("${app.config-file:}") String configFileOverride) {
+        // 显式指定的配置文件优先，例如测试使用的内存数据库配置
+        if (!configFileOverride.isBlank()) {
+            return ConfigFactory.parseFile(new File(configFileOverride));
+        }
         // 获取应用程序运行目录
         String appDir = System.getProperty("user.dir");
         // 配置文件路径
@@ -34,15 +60,58 @@ public class DatabaseConfig {
 
     @Bean
     @Primary
-    public DataSource dataSource() {
-        Config config = loadConfig();
-        Config dbConfig = config.getConfig("database");
-        
-        return DataSourceBuilder.create()
-                .driverClassName(dbConfig.getString("driver"))
-                .url(dbConfig.getString("url"))
-                .username(dbConfig.getString("username"))
-                .password(dbConfig.getString("password"))
+    public DataSource dataSource(
+            Config appConfig,
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.sql.enabled:true}") boolean sqlStatisticsEnabled
+    ) {
+        Config dbConfig = appConfig.getConfig("database");
+        Config poolConfig = (dbConfig.hasPath("pool") ? dbConfig.getConfig("pool") : ConfigFactory.empty())
+                .withFallback(POOL_DEFAULTS);
+
+        HikariConfig hikariConfig = new HikariConfig();
+        hikariConfig.setDriverClassName(dbConfig.getString("driver"));
+        hikariConfig.setJdbcUrl(dbConfig.getString("url"));
+        hikariConfig.setUsername(dbConfig.getString("username"));
+        hikariConfig.setPassword(dbConfig.getString("password"));
+
+        hikariConfig.setPoolName(poolConfig.getString("name"));
+        hikariConfig.setMaximumPoolSize(poolConfig.getInt("maximum-pool-size"));
+        hikariConfig.setMinimumIdle(poolConfig.getInt("minimum-idle"));
+        hikariConfig.setConnectionTimeout(poolConfig.getDuration("connection-timeout").toMillis());
+        hikariConfig.setIdleTimeout(poolConfig.getDuration("idle-timeout").toMillis());
+        hikariConfig.setMaxLifetime(poolConfig.getDuration("max-lifetime").toMillis());
+        hikariConfig.setKeepaliveTime(poolConfig.getDuration("keepalive-time").toMillis());
+        hikariConfig.setValidationTimeout(poolConfig.getDuration("validation-timeout").toMillis());
+        // 连接借出超过阈值未归还时输出泄漏告警及借出位置的堆栈
+        hikariConfig.setLeakDetectionThreshold(poolConfig.getDuration("leak-detection-threshold").toMillis());
+        if (poolConfig.hasPath("connection-test-query")) {
+            hikariConfig.setConnectionTestQuery(poolConfig.getString("connection-test-query"));
+        }
+
+        // 驱动端预编译语句缓存
+        hikariConfig.addDataSourceProperty("prepareThreshold", poolConfig.getInt("prepare-threshold"));
+        hikariConfig.addDataSourceProperty("preparedStatementCacheQueries",
+                poolConfig.getInt("prepared-statement-cache-queries"));
+        hikariConfig.addDataSourceProperty("preparedStatementCacheSizeMiB",
+                poolConfig.getInt("prepared-statement-cache-size-mib"));
+
+        // 主键和外键为 uuid 类型，原生 SQL 以字符串传入的 id 交给数据库按列类型转换
+        hikariConfig.addDataSourceProperty("stringtype", "unspecified");
+
+        // 注册活跃、空闲、等待连接数以及获取连接耗时等指标
+        hikariConfig.setMetricsTrackerFactory(new MicrometerMetricsTrackerFactory(meterRegistry));
+
+        HikariDataSource pool = new HikariDataSource(hikariConfig);
+        if (!sqlStatisticsEnabled) {
+            return pool;
+        }
+        // 代理连接池以统计每个请求的语句数、读取行数和数据库耗时
+        SqlStatementCounter counter = new SqlStatementCounter();
+        return ProxyDataSourceBuilder.create(hikariConfig.getPoolName(), pool)
+                .listener(counter)
+                .methodListener(counter)
+                .proxyResultSet()
                 .build();
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
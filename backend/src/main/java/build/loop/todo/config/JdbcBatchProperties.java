@@ -0,0 +1,14 @@
+package build.loop.todo.config;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * JDBC 批量写入配置，对应 config.conf 中的 jpa.batch
+ */
+@Getter
+@RequiredArgsConstructor
+public class JdbcBatchProperties {
+    private final int size;
+    private final int flushInterval;
+}
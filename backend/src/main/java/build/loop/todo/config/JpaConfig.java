@@ -1,9 +1,90 @@
 package build.loop.todo.config;
 
+import com.github.benmanes.caffeine.jcache.configuration.TypesafeConfigurator;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import com.typesafe.config.Config;
+import com.typesafe.config.ConfigFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 
 @Configuration
 @EnableJpaAuditing
 public class JpaConfig {
-} 
\ No newline at end of file
+    private static final int DEFAULT_BATCH_SIZE = 50;
+    private static final int DEFAULT_FLUSH_INTERVAL = 500;
+    // 二级缓存默认值，config.conf 中的 jpa.second-level-cache 会覆盖对应项
+    // 每个区域都必须限制容量和过期时间，新增 @Cache 注解时需同步添加区域
+    private static final Config CACHE_DEFAULTS = ConfigFactory.parseString("""
+            enabled = true
+            statistics = true
+            regions {
+                projects.policy {
+                    maximum.size = 10000
+                    eager-expiration.after-write = 10m
+                }
+                project-labels.policy {
+                    maximum.size = 10000
+                    eager-expiration.after-write = 10m
+                }
+                project-members.policy {
+                    maximum.size = 50000
+                    eager-expiration.after-write = 10m
+                }
+                user-settings.policy {
+                    maximum.size = 10000
+                    eager-expiration.after-write = 30m
+                }
+            }
+            """);
+
+    @Bean
+    public JdbcBatchProperties jdbcBatchProperties(Config appConfig) {
+        Config batchConfig = appConfig.hasPath("jpa.batch") ? appConfig.getConfig("jpa.batch") : null;
+        int size = batchConfig != null && batchConfig.hasPath("size")
+            ? batchConfig.getInt("size") : DEFAULT_BATCH_SIZE;
+        int flushInterval = batchConfig != null && batchConfig.hasPath("flush-interval")
+            ? batchConfig.getInt("flush-interval") : DEFAULT_FLUSH_INTERVAL;
+        return new JdbcBatchProperties(size, flushInterval);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer jdbcBatchCustomizer(JdbcBatchProperties batchProperties) {
+        // ID 由 IdGeneratorListener 在客户端生成，不会阻断 Hibernate 的 JDBC 批处理
+        return properties -> {
+            properties.put(AvailableSettings.STATEMENT_BATCH_SIZE, batchProperties.getSize());
+            properties.put(AvailableSettings.ORDER_INSERTS, true);
+            properties.put(AvailableSettings.ORDER_UPDATES, true);
+            properties.put(AvailableSettings.BATCH_VERSIONED_DATA, true);
+        };
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(Config appConfig) {
+        Config cacheConfig = (appConfig.hasPath("jpa.second-level-cache")
+                ? appConfig.getConfig("jpa.second-level-cache") : ConfigFactory.empty())
+                .withFallback(CACHE_DEFAULTS);
+        return properties -> {
+            // 命中率等统计由 Micrometer 以 hibernate.second.level.cache.* 指标发布
+            properties.put(AvailableSettings.GENERATE_STATISTICS, cacheConfig.getBoolean("statistics"));
+            if (!cacheConfig.getBoolean("enabled")) {
+                properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, false);
+                return;
+            }
+            // Caffeine 的 JCache 实现从 caffeine.jcache 读取各区域的配置，这里改为取自 config.conf
+            Config regions = ConfigFactory.empty()
+                    .withValue("caffeine.jcache", cacheConfig.getConfig("regions").root())
+                    .withFallback(ConfigFactory.defaultReference(JpaConfig.class.getClassLoader()))
+                    .resolve();
+            TypesafeConfigurator.setConfigSource(() -> regions);
+
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, "jcache");
+            properties.put("hibernate.javax.cache.provider", CaffeineCachingProvider.class.getName());
+            // 未定义的区域直接启动失败，避免出现不受限的缓存
+            properties.put("hibernate.javax.cache.missing_cache_strategy", "fail");
+        };
+    }
+}
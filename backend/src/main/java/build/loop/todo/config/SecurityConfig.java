@@ -1,6 +1,8 @@
 package build.loop.todo.config;
 
 import build.loop.todo.security.JwtAuthenticationFilter;
+import build.loop.todo.security.PrincipalCache;
+import org.springframework.boot.actuate.autoconfigure.security.servlet.EndpointRequest;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -27,10 +29,13 @@ import java.util.List;
 public class SecurityConfig {
     private final JwtAuthenticationFilter jwtAuthFilter;
     private final UserDetailsService userDetailsService;
+    private final PrincipalCache principalCache;
 
-    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService) {
+    public SecurityConfig(JwtAuthenticationFilter jwtAuthFilter, UserDetailsService userDetailsService,
+                          PrincipalCache principalCache) {
         this.jwtAuthFilter = jwtAuthFilter;
         this.userDetailsService = userDetailsService;
+        this.principalCache = principalCache;
     }
 
     @Bean
@@ -43,6 +48,8 @@ public class SecurityConfig {
                 .requestMatchers("/api/v1/auth/**").permitAll()
                 .requestMatchers("/api/v1/system/health", "/api/v1/system/shutdown").permitAll()
                 .requestMatchers("/error").permitAll()
+                // 监控端点仅监听本机的管理端口
+                .requestMatchers(EndpointRequest.toAnyEndpoint()).permitAll()
                 .anyRequest().authenticated()
             )
             .sessionManagement(session -> session
@@ -72,6 +79,7 @@ public class SecurityConfig {
         DaoAuthenticationProvider authProvider = new DaoAuthenticationProvider();
         authProvider.setUserDetailsService(userDetailsService);
         authProvider.setPasswordEncoder(passwordEncoder());
+        authProvider.setUserCache(principalCache);
         return authProvider;
     }
 
@@ -1,15 +1,37 @@
 package build.loop.todo.config;
 
+import build.loop.todo.controller.IdPathVariableInterceptor;
+import build.loop.todo.controller.PendingWriteInterceptor;
+import build.loop.todo.security.ProjectAccessInterceptor;
+import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.http.MediaType;
 import org.springframework.web.servlet.config.annotation.ContentNegotiationConfigurer;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.ResourceHandlerRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.ViewControllerRegistry;
 
 @Configuration
+@RequiredArgsConstructor
 public class WebConfig implements WebMvcConfigurer {
+    private final IdPathVariableInterceptor idPathVariableInterceptor;
+    private final ProjectAccessInterceptor projectAccessInterceptor;
+    private final PendingWriteInterceptor pendingWriteInterceptor;
+
+    @Override
+    public void addInterceptors(@NonNull InterceptorRegistry registry) {
+        // 先拦下格式不对的路径 id，之后的拦截器和控制器只会看到合法的 uuid
+        registry.addInterceptor(idPathVariableInterceptor)
+                .addPathPatterns("/api/**");
+        // 项目及其下属资源的路由都需要校验成员身份
+        registry.addInterceptor(projectAccessInterceptor)
+                .addPathPatterns("/api/v1/projects/{projectId}", "/api/v1/projects/{projectId}/**");
+        // 成员校验通过后再写入积压修改
+        registry.addInterceptor(pendingWriteInterceptor)
+                .addPathPatterns("/api/v1/projects/{projectId}", "/api/v1/projects/{projectId}/**");
+    }
 
     @Override
     public void addResourceHandlers(@NonNull ResourceHandlerRegistry registry) {
@@ -0,0 +1,14 @@
+package build.loop.todo.controller;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记可由 TaskWriteCoalescer 合并写入的项目路由，处理前不写入项目的积压修改
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface CoalescedWrite {
+}
@@ -0,0 +1,41 @@
+package build.loop.todo.controller;
+
+import build.loop.todo.util.Ids;
+import jakarta.persistence.EntityNotFoundException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 校验路径中的 id（projectId、taskId、userId 等以 Id 结尾的变量），格式不对时返回 404
+ * 在成员校验之前执行，格式不对的 id 不会进入缓存或数据库查询
+ */
+@Component
+public class IdPathVariableInterceptor implements HandlerInterceptor {
+    private static final String ID_SUFFIX = "Id";
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler
+    ) {
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        if (pathVariables == null) {
+            return true;
+        }
+        pathVariables.forEach((name, value) -> {
+            if (name.endsWith(ID_SUFFIX) && !Ids.isValid(value)) {
+                throw new EntityNotFoundException("Resource not found: " + value);
+            }
+        });
+        return true;
+    }
+}
@@ -0,0 +1,45 @@
+package build.loop.todo.controller;
+
+import build.loop.todo.service.TaskWriteCoalescer;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 开启合并写入时，项目路由在处理前先写入该项目的积压修改，读取和其他写入都基于最新数据
+ * 标记 @CoalescedWrite 的路由除外
+ */
+@Component
+@RequiredArgsConstructor
+public class PendingWriteInterceptor implements HandlerInterceptor {
+    private static final String PROJECT_ID = "projectId";
+
+    private final TaskWriteCoalescer taskWriteCoalescer;
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler
+    ) {
+        if (!taskWriteCoalescer.isEnabled() || !(handler instanceof HandlerMethod handlerMethod)
+                || handlerMethod.hasMethodAnnotation(CoalescedWrite.class)) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String projectId = pathVariables == null ? null : pathVariables.get(PROJECT_ID);
+        if (projectId != null) {
+            taskWriteCoalescer.flush(projectId);
+        }
+        return true;
+    }
+}
@@ -1,21 +1,27 @@
 package build.loop.todo.controller;
 
+import build.loop.todo.event.ProjectEventBroadcaster;
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.ProjectMember;
-import build.loop.todo.model.entity.User;
 import build.loop.todo.model.dto.ProjectListResponse;
 import build.loop.todo.model.dto.ProjectMemberListResponse;
 import build.loop.todo.model.dto.LabelListResponse;
 import build.loop.todo.model.dto.BatchDeleteResponse;
+import build.loop.todo.model.dto.LabelUpdateResponse;
+import build.loop.todo.model.dto.TaskStatsResponse;
 import build.loop.todo.service.ProjectService;
-import build.loop.todo.service.UserService;
+import build.loop.todo.service.TaskService;
 import build.loop.todo.security.CustomUserDetails;
+import build.loop.todo.security.RequireProjectOwner;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
 import java.util.List;
 import java.util.Map;
@@ -25,14 +31,16 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class ProjectController {
     private final ProjectService projectService;
-    private final UserService userService;
+    private final TaskService taskService;
+    private final ProjectEventBroadcaster projectEventBroadcaster;
 
     @GetMapping
-    public ResponseEntity<ProjectListResponse> getAllProjects(@AuthenticationPrincipal UserDetails userDetails) {
-        User user = userService.findByEmail(((CustomUserDetails) userDetails).getEmail())
-            .orElseThrow(() -> new IllegalStateException("User not found"));
-        List<Project> projects = projectService.findAllByUser(user);
-        return ResponseEntity.ok(ProjectListResponse.of(projects));
+    public ResponseEntity<ProjectListResponse> getAllProjects(
+        @AuthenticationPrincipal UserDetails userDetails,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit
+    ) {
+        return ResponseEntity.ok(projectService.findAllByUser(((CustomUserDetails) userDetails).getId(), cursor, limit));
     }
 
     @PostMapping
@@ -40,10 +48,8 @@ public class ProjectController {
         @AuthenticationPrincipal UserDetails userDetails,
         @RequestBody Project project
     ) {
-        User user = userService.findByEmail(((CustomUserDetails) userDetails).getEmail())
-            .orElseThrow(() -> new IllegalStateException("User not found"));
         return ResponseEntity.status(HttpStatus.CREATED)
-            .body(projectService.create(project, user));
+            .body(projectService.create(project, ((CustomUserDetails) userDetails).getId()));
     }
 
     @GetMapping("/{projectId}")
@@ -54,6 +60,7 @@ public class ProjectController {
     }
 
     @PutMapping("/{projectId}")
+    @RequireProjectOwner
     public ResponseEntity<Project> updateProject(
         @PathVariable String projectId,
         @RequestBody Project project
@@ -63,24 +70,51 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{projectId}")
-    public ResponseEntity<Void> deleteProject(@PathVariable String projectId) {
-        projectService.deleteById(projectId);
+    @RequireProjectOwner
+    public ResponseEntity<Void> deleteProject(
+        @AuthenticationPrincipal UserDetails userDetails,
+        @PathVariable String projectId
+    ) {
+        projectService.deleteById(projectId, ((CustomUserDetails) userDetails).getId());
         return ResponseEntity.noContent().build();
     }
 
     @DeleteMapping
-    public ResponseEntity<BatchDeleteResponse> batchDeleteProjects(@RequestBody Map<String, List<String>> request) {
+    public ResponseEntity<BatchDeleteResponse> batchDeleteProjects(
+        @AuthenticationPrincipal UserDetails userDetails,
+        @RequestBody Map<String, List<String>> request
+    ) {
         List<String> projectIds = request.get("project_ids");
-        return ResponseEntity.ok(projectService.deleteByIds(projectIds));
+        return ResponseEntity.ok(projectService.deleteByIds(projectIds, ((CustomUserDetails) userDetails).getId()));
+    }
+
+    @GetMapping(value = "/{projectId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter subscribeProjectEvents(
+        @AuthenticationPrincipal UserDetails userDetails,
+        @PathVariable String projectId
+    ) {
+        return projectEventBroadcaster.subscribe(projectId, ((CustomUserDetails) userDetails).getId());
+    }
+
+    @GetMapping("/{projectId}/stats")
+    public ResponseEntity<TaskStatsResponse> getProjectStats(@PathVariable String projectId, WebRequest request) {
+        return RevisionETag.respond(request, projectService.getRevision(projectId),
+            () -> taskService.getStats(projectId));
     }
 
     @GetMapping("/{projectId}/members")
-    public ResponseEntity<ProjectMemberListResponse> getProjectMembers(@PathVariable String projectId) {
-        List<ProjectMember> members = projectService.getProjectMembers(projectId);
-        return ResponseEntity.ok(ProjectMemberListResponse.of(members));
+    public ResponseEntity<ProjectMemberListResponse> getProjectMembers(
+        @PathVariable String projectId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request
+    ) {
+        return RevisionETag.respond(request, projectService.getRevision(projectId),
+            () -> projectService.getProjectMembers(projectId, cursor, limit));
     }
 
     @PostMapping("/{projectId}/members")
+    @RequireProjectOwner
     public ResponseEntity<ProjectMember> addProjectMember(
         @PathVariable String projectId,
         @RequestBody Map<String, String> request
@@ -92,6 +126,7 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{projectId}/members/{userId}")
+    @RequireProjectOwner(allowSelf = "userId")
     public ResponseEntity<Void> removeProjectMember(
         @PathVariable String projectId,
         @PathVariable String userId
@@ -101,9 +136,9 @@ public class ProjectController {
     }
 
     @GetMapping("/{projectId}/labels")
-    public ResponseEntity<LabelListResponse> getProjectLabels(@PathVariable String projectId) {
-        List<String> labels = projectService.getProjectLabels(projectId);
-        return ResponseEntity.ok(LabelListResponse.of(labels));
+    public ResponseEntity<LabelListResponse> getProjectLabels(@PathVariable String projectId, WebRequest request) {
+        return RevisionETag.respond(request, projectService.getRevision(projectId),
+            () -> LabelListResponse.of(projectService.getProjectLabels(projectId)));
     }
 
     @PostMapping("/{projectId}/labels")
@@ -118,14 +153,31 @@ public class ProjectController {
     }
 
     @DeleteMapping("/{projectId}/labels")
-    public ResponseEntity<Void> removeProjectLabels(
+    public ResponseEntity<LabelUpdateResponse> removeProjectLabels(
         @PathVariable String projectId,
         @RequestBody Map<String, List<String>> request
     ) {
         List<String> labels = request.get("labels");
-        for (String label : labels) {
-            projectService.removeProjectLabel(projectId, label);
-        }
-        return ResponseEntity.noContent().build();
+        return ResponseEntity.ok(projectService.removeProjectLabels(projectId, labels));
+    }
+
+    @PatchMapping("/{projectId}/labels/{label}")
+    public ResponseEntity<LabelUpdateResponse> renameProjectLabel(
+        @PathVariable String projectId,
+        @PathVariable String label,
+        @RequestBody Map<String, String> request
+    ) {
+        String newLabel = request.get("label");
+        return ResponseEntity.ok(projectService.renameProjectLabel(projectId, label, newLabel));
+    }
+
+    @PostMapping("/{projectId}/labels/{label}/merge")
+    public ResponseEntity<LabelUpdateResponse> mergeProjectLabel(
+        @PathVariable String projectId,
+        @PathVariable String label,
+        @RequestBody Map<String, String> request
+    ) {
+        String target = request.get("target");
+        return ResponseEntity.ok(projectService.mergeProjectLabel(projectId, label, target));
     }
-} 
\ No newline at end of file
+}
\ No newline at end of file
@@ -0,0 +1,30 @@
+package build.loop.todo.controller;
+
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * 看板接口的条件请求，以项目版本号作为强 ETag
+ * 版本号在加载数据之前读取，并发写入只会让 ETag 偏旧，客户端下次请求时拿到新数据
+ */
+final class RevisionETag {
+    private RevisionETag() {
+    }
+
+    /**
+     * If-None-Match 命中时返回 null，由 checkNotModified 写出 304，不调用 body
+     */
+    static <T> ResponseEntity<T> respond(WebRequest request, long revision, Supplier<T> body) {
+        String etag = "\"" + revision + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+            .eTag(etag)
+            .cacheControl(CacheControl.noCache())
+            .body(body.get());
+    }
+}
@@ -1,5 +1,7 @@
 package build.loop.todo.controller;
 
+import build.loop.todo.monitoring.DatabaseRoundTripProbe;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -9,6 +11,7 @@ import org.springframework.context.ApplicationContext;
 import org.springframework.boot.SpringApplication;
 import lombok.RequiredArgsConstructor;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 
 @RestController
@@ -16,13 +19,19 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class SystemController {
     private final ApplicationContext context;
+    private final DatabaseRoundTripProbe databaseRoundTripProbe;
 
+    /**
+     * 深度健康检查，包含一次数据库往返，数据库不可用时返回 503
+     */
     @GetMapping("/health")
-    public ResponseEntity<Map<String, String>> health() {
-        return ResponseEntity.ok(Map.of(
-            "status", "UP",
-            "message", "Service is running"
-        ));
+    public ResponseEntity<Map<String, Object>> health() {
+        DatabaseRoundTripProbe.Result database = databaseRoundTripProbe.probe();
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("status", database.up() ? "UP" : "DOWN");
+        body.put("message", database.up() ? "Service is running" : "Database is unavailable");
+        body.put("database", database.toMap());
+        return ResponseEntity.status(database.up() ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE).body(body);
     }
 
     @PostMapping("/shutdown")
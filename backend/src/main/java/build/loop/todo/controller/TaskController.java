@@ -1,14 +1,27 @@
 package build.loop.todo.controller;
 
 import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.dto.TaskBatchResponse;
+import build.loop.todo.model.dto.TaskFilter;
 import build.loop.todo.model.dto.TaskListResponse;
+import build.loop.todo.model.dto.TaskPatch;
 import build.loop.todo.model.dto.BatchDeleteResponse;
+import build.loop.todo.service.ProjectService;
 import build.loop.todo.service.TaskService;
+import build.loop.todo.service.TaskWriteCoalescer;
+import com.fasterxml.jackson.databind.JsonNode;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.format.annotation.DateTimeFormat.ISO;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -17,10 +30,48 @@ import java.util.Map;
 @RequiredArgsConstructor
 public class TaskController {
     private final TaskService taskService;
+    private final ProjectService projectService;
+    private final TaskWriteCoalescer taskWriteCoalescer;
 
     @GetMapping
-    public ResponseEntity<TaskListResponse> getAllTasks(@PathVariable String projectId) {
-        return ResponseEntity.ok(taskService.findAllByProject(projectId));
+    public ResponseEntity<TaskListResponse> getAllTasks(
+        @PathVariable String projectId,
+        @RequestParam(required = false) String cursor,
+        @RequestParam(required = false) Integer limit,
+        @RequestParam(required = false) List<String> status,
+        @RequestParam(required = false) List<String> priority,
+        @RequestParam(required = false) List<String> label,
+        @RequestParam(name = "created_after", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdAfter,
+        @RequestParam(name = "created_before", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime createdBefore,
+        @RequestParam(name = "updated_after", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime updatedAfter,
+        @RequestParam(name = "updated_before", required = false) @DateTimeFormat(iso = ISO.DATE_TIME) LocalDateTime updatedBefore,
+        @RequestParam(required = false) String sort,
+        WebRequest request
+    ) {
+        TaskFilter filter = TaskFilter.of(status, priority, label,
+            createdAfter, createdBefore, updatedAfter, updatedBefore, sort);
+        return RevisionETag.respond(request, projectService.getRevision(projectId),
+            () -> taskService.findAllByProject(projectId, filter, cursor, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<TaskListResponse> searchTasks(
+        @PathVariable String projectId,
+        @RequestParam("q") String query,
+        @RequestParam(required = false) Integer limit,
+        WebRequest request
+    ) {
+        return RevisionETag.respond(request, projectService.getRevision(projectId),
+            () -> taskService.search(projectId, query, limit));
+    }
+
+    @GetMapping(value = "/export", produces = "application/x-ndjson")
+    public ResponseEntity<StreamingResponseBody> exportTasks(@PathVariable String projectId) {
+        StreamingResponseBody body = outputStream -> taskService.exportByProject(projectId, outputStream);
+        return ResponseEntity.ok()
+            .contentType(MediaType.parseMediaType("application/x-ndjson"))
+            .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=\"tasks-" + projectId + ".ndjson\"")
+            .body(body);
     }
 
     @PostMapping
@@ -33,7 +84,7 @@ public class TaskController {
     }
 
     @PostMapping("/batch")
-    public ResponseEntity<TaskListResponse> batchCreateTasks(
+    public ResponseEntity<TaskBatchResponse> batchCreateTasks(
         @PathVariable String projectId,
         @RequestBody Map<String, List<Task>> request
     ) {
@@ -47,7 +98,9 @@ public class TaskController {
         @PathVariable String projectId,
         @PathVariable String taskId
     ) {
+        // 只返回属于路径中项目的任务，成员校验按项目进行
         return taskService.findById(taskId)
+            .filter(task -> task.getProject().getId().equals(projectId))
             .map(ResponseEntity::ok)
             .orElseThrow(() -> new IllegalStateException("Task not found"));
     }
@@ -61,30 +114,44 @@ public class TaskController {
         return ResponseEntity.ok(taskService.update(projectId, taskId, task));
     }
 
+    /**
+     * JSON Merge Patch，只更新请求中出现的字段
+     */
+    @PatchMapping(value = "/{taskId}", consumes = "application/merge-patch+json")
+    public ResponseEntity<Task> patchTask(
+        @PathVariable String projectId,
+        @PathVariable String taskId,
+        @RequestBody JsonNode patch
+    ) {
+        return ResponseEntity.ok(taskService.patch(projectId, taskId, TaskPatch.of(patch)));
+    }
+
     @PatchMapping("/{taskId}/status")
+    @CoalescedWrite
     public ResponseEntity<Task> updateTaskStatus(
         @PathVariable String projectId,
         @PathVariable String taskId,
         @RequestBody Map<String, String> request
     ) {
         String status = request.get("status");
-        taskService.updateTaskStatus(projectId, taskId, status);
-        return taskService.findById(taskId)
-            .map(ResponseEntity::ok)
-            .orElseThrow(() -> new IllegalStateException("Task not found"));
+        if (taskWriteCoalescer.isEnabled()) {
+            return ResponseEntity.ok(taskWriteCoalescer.updateStatus(projectId, taskId, status));
+        }
+        return ResponseEntity.ok(taskService.patch(projectId, taskId, TaskPatch.ofStatus(status)));
     }
 
     @PatchMapping("/{taskId}/priority")
+    @CoalescedWrite
     public ResponseEntity<Task> updateTaskPriority(
         @PathVariable String projectId,
         @PathVariable String taskId,
         @RequestBody Map<String, String> request
     ) {
         String priority = request.get("priority");
-        taskService.updateTaskPriority(projectId, taskId, priority);
-        return taskService.findById(taskId)
-            .map(ResponseEntity::ok)
-            .orElseThrow(() -> new IllegalStateException("Task not found"));
+        if (taskWriteCoalescer.isEnabled()) {
+            return ResponseEntity.ok(taskWriteCoalescer.updatePriority(projectId, taskId, priority));
+        }
+        return ResponseEntity.ok(taskService.patch(projectId, taskId, TaskPatch.ofPriority(priority)));
     }
 
     @DeleteMapping("/{taskId}")
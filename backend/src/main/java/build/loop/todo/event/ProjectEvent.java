@@ -0,0 +1,10 @@
+package build.loop.todo.event;
+
+import java.util.Map;
+
+/**
+ * 项目变更事件，payload 只保存 id 和已加载实体的引用，发布时不做序列化
+ * ProjectEventBroadcaster 在事务提交后、项目确有订阅者时才序列化一次，所有订阅者共享同一份
+ */
+public record ProjectEvent(String projectId, ProjectEventType type, Map<String, Object> payload) {
+}
@@ -0,0 +1,242 @@
+package build.loop.todo.event;
+
+import build.loop.todo.repository.ProjectMemberRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 项目变更事件的 SSE 推送
+ * 事务提交后只把事件放入各订阅者的有界队列，不在请求线程上写网络；每个订阅者同一时刻最多占用一个虚拟线程发送
+ * 队列写满时丢弃积压事件并推送 resync，慢客户端占用的内存与线程都有上限
+ * 事件只在项目有订阅者时序列化，序列化失败只记录日志并丢弃该事件，已提交的写入不受影响
+ */
+@Component
+@Slf4j
+public class ProjectEventBroadcaster {
+    private static final Frame HEARTBEAT = new Frame(0, null, null);
+
+    private final ProjectMemberRepository projectMemberRepository;
+    private final ObjectMapper objectMapper;
+    private final Map<String, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService heartbeat = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("sse-heartbeat").daemon().factory());
+    private final AtomicLong sequence = new AtomicLong();
+    private final int queueCapacity;
+    private final long timeoutMillis;
+    private final Counter resyncs;
+    private final Counter dropped;
+
+    public ProjectEventBroadcaster(
+            ProjectMemberRepository projectMemberRepository,
+            ObjectMapper objectMapper,
+            MeterRegistry meterRegistry,
+            @Value("${events.sse.queue-capacity:256}") int queueCapacity,
+            @Value("${events.sse.timeout:1800}") long timeoutSeconds,
+            @Value("${events.sse.heartbeat:15}") long heartbeatSeconds
+    ) {
+        this.projectMemberRepository = projectMemberRepository;
+        this.objectMapper = objectMapper;
+        this.queueCapacity = queueCapacity;
+        this.timeoutMillis = Duration.ofSeconds(timeoutSeconds).toMillis();
+        this.resyncs = Counter.builder("events.sse.resyncs")
+                .description("Subscriber buffers that overflowed and were told to resync")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("events.sse.dropped")
+                .description("Project events dropped because they could not be serialized")
+                .register(meterRegistry);
+        Gauge.builder("events.sse.subscribers", subscribers,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .register(meterRegistry);
+        heartbeat.scheduleAtFixedRate(this::sendHeartbeats, heartbeatSeconds, heartbeatSeconds, TimeUnit.SECONDS);
+    }
+
+    /**
+     * 订阅项目事件，调用方需已校验成员身份
+     */
+    public SseEmitter subscribe(String projectId, String userId) {
+        SseEmitter emitter = new SseEmitter(timeoutMillis);
+        Subscriber subscriber = new Subscriber(projectId, userId, emitter);
+        subscribers.compute(projectId, (key, set) -> {
+            Set<Subscriber> target = set == null ? ConcurrentHashMap.newKeySet() : set;
+            target.add(subscriber);
+            return target;
+        });
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        // 立即写出响应头，客户端据此确认订阅已建立
+        subscriber.offer(HEARTBEAT);
+        return emitter;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT)
+    public void onProjectEvent(ProjectEvent event) {
+        Set<Subscriber> targets = subscribers.get(event.projectId());
+        if (targets == null || targets.isEmpty()) {
+            return;
+        }
+        String data;
+        try {
+            data = objectMapper.writeValueAsString(event.payload());
+        } catch (JsonProcessingException | RuntimeException e) {
+            dropped.increment();
+            log.error("Dropped {} event of project {}: failed to serialize payload",
+                    event.type().getValue(), event.projectId(), e);
+            return;
+        }
+        Frame frame = new Frame(sequence.incrementAndGet(), event.type(), data);
+        for (Subscriber subscriber : targets) {
+            subscriber.offer(frame);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        heartbeat.shutdownNow();
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.emitter.complete()));
+        sender.shutdown();
+    }
+
+    private void sendHeartbeats() {
+        subscribers.values().forEach(set -> set.forEach(subscriber -> subscriber.offer(HEARTBEAT)));
+    }
+
+    private void remove(Subscriber subscriber) {
+        subscribers.computeIfPresent(subscriber.projectId, (key, set) -> {
+            set.remove(subscriber);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * type 为 null 时表示心跳，data 为序列化好的 JSON
+     */
+    private record Frame(long id, ProjectEventType type, String data) {
+    }
+
+    private final class Subscriber implements Runnable {
+        private final String projectId;
+        private final String userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Frame> queue = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+        private volatile boolean resync;
+        private volatile boolean closed;
+
+        Subscriber(String projectId, String userId, SseEmitter emitter) {
+            this.projectId = projectId;
+            this.userId = userId;
+            this.emitter = emitter;
+        }
+
+        void offer(Frame frame) {
+            if (closed) {
+                return;
+            }
+            if (!queue.offer(frame)) {
+                // 队列非空时心跳没有意义，直接丢弃
+                if (frame == HEARTBEAT) {
+                    return;
+                }
+                queue.clear();
+                resync = true;
+                resyncs.increment();
+            }
+            schedule();
+        }
+
+        private void schedule() {
+            if (!closed && scheduled.compareAndSet(false, true)) {
+                sender.execute(this);
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                while (!closed) {
+                    if (resync) {
+                        resync = false;
+                        send(new Frame(sequence.incrementAndGet(), ProjectEventType.RESYNC,
+                                "{\"project_id\":\"" + projectId + "\"}"));
+                        continue;
+                    }
+                    Frame frame = queue.poll();
+                    if (frame == null) {
+                        break;
+                    }
+                    if (frame.type() != null && frame.type().affectsMembership()) {
+                        deliverMembershipChange(frame);
+                    } else {
+                        send(frame);
+                    }
+                }
+            } catch (IOException | IllegalStateException e) {
+                // 客户端已断开，容器会另行回调 onError/onCompletion
+                log.debug("SSE subscriber of project {} disconnected: {}", projectId, e.getMessage());
+                close();
+            } finally {
+                scheduled.set(false);
+                if (!closed && (resync || !queue.isEmpty())) {
+                    schedule();
+                }
+            }
+        }
+
+        /**
+         * 失去访问权限的订阅者收到该事件后关闭连接
+         */
+        private void deliverMembershipChange(Frame frame) throws IOException {
+            boolean member = projectMemberRepository.findRole(projectId, userId).isPresent();
+            send(frame);
+            if (!member) {
+                close();
+                emitter.complete();
+            }
+        }
+
+        private void send(Frame frame) throws IOException {
+            if (frame.type() == null) {
+                emitter.send(SseEmitter.event().comment("ping"));
+                return;
+            }
+            emitter.send(SseEmitter.event()
+                    .id(Long.toString(frame.id()))
+                    .name(frame.type().getValue())
+                    .data(frame.data()));
+        }
+
+        void close() {
+            if (!closed) {
+                closed = true;
+                queue.clear();
+                remove(this);
+            }
+        }
+    }
+}
@@ -0,0 +1,40 @@
+package build.loop.todo.event;
+
+import build.loop.todo.model.entity.Task;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 在服务方法的事务内发布项目变更事件
+ * 事务内只记录事件类型和涉及的任务，不做序列化，写请求的事务不受订阅者数量和序列化失败影响
+ * 事件由 ProjectEventBroadcaster 在事务提交后推送，回滚的变更不会推送
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectEventPublisher {
+    private final ApplicationEventPublisher applicationEventPublisher;
+
+    public void taskChanged(String projectId, ProjectEventType type, Task task) {
+        publish(projectId, type, Map.of("project_id", projectId, "task", task));
+    }
+
+    public void tasksCreated(String projectId, List<Task> tasks) {
+        publish(projectId, ProjectEventType.TASKS_CREATED, Map.of("project_id", projectId, "tasks", tasks));
+    }
+
+    public void tasksDeleted(String projectId, List<String> taskIds) {
+        publish(projectId, ProjectEventType.TASK_DELETED, Map.of("project_id", projectId, "task_ids", taskIds));
+    }
+
+    public void projectChanged(String projectId, ProjectEventType type) {
+        publish(projectId, type, Map.of("project_id", projectId));
+    }
+
+    private void publish(String projectId, ProjectEventType type, Map<String, Object> payload) {
+        applicationEventPublisher.publishEvent(new ProjectEvent(projectId, type, payload));
+    }
+}
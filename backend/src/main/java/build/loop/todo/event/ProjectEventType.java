@@ -0,0 +1,33 @@
+package build.loop.todo.event;
+
+public enum ProjectEventType {
+    TASK_CREATED("task.created"),
+    TASKS_CREATED("tasks.created"),
+    TASK_UPDATED("task.updated"),
+    TASK_DELETED("task.deleted"),
+    TASK_STATUS_CHANGED("task.status"),
+    TASK_PRIORITY_CHANGED("task.priority"),
+    TASK_LABELS_CHANGED("task.labels"),
+    PROJECT_LABELS_CHANGED("project.labels"),
+    PROJECT_MEMBERS_CHANGED("project.members"),
+    PROJECT_DELETED("project.deleted"),
+    // 订阅者缓冲区溢出，事件已丢弃，客户端需要重新拉取完整数据
+    RESYNC("resync");
+
+    private final String value;
+
+    ProjectEventType(String value) {
+        this.value = value;
+    }
+
+    public String getValue() {
+        return value;
+    }
+
+    /**
+     * 成员变更和项目删除可能使订阅者失去访问权限，推送前需要重新校验
+     */
+    public boolean affectsMembership() {
+        return this == PROJECT_MEMBERS_CHANGED || this == PROJECT_DELETED;
+    }
+}
@@ -1,10 +1,10 @@
 package build.loop.todo.model;
 
+import com.fasterxml.jackson.annotation.JsonProperty;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.annotations.JdbcTypeCode;
-import org.hibernate.type.SqlTypes;
+import org.hibernate.annotations.JavaType;
 import org.springframework.data.annotation.CreatedDate;
 import org.springframework.data.annotation.LastModifiedDate;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
@@ -16,9 +16,11 @@ import java.time.LocalDateTime;
 @MappedSuperclass
 @EntityListeners({AuditingEntityListener.class, IdGeneratorListener.class})
 public abstract class BaseEntity {
+    // 数据库中为 uuid 类型，引用该主键的外键列随之使用 uuid
+    // 主键只由服务端生成，请求体中的 id 会被忽略
     @Id
-    @Column(length = 36)
-    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @JsonProperty(access = JsonProperty.Access.READ_ONLY)
+    @JavaType(UuidStringJavaType.class)
     private String id;
     
     @CreatedDate
@@ -0,0 +1,18 @@
+package build.loop.todo.model.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class LabelUpdateResponse {
+    private int projectLabelCount;
+    private int taskLabelCount;
+
+    public static LabelUpdateResponse of(int projectLabelCount, int taskLabelCount) {
+        LabelUpdateResponse response = new LabelUpdateResponse();
+        response.setProjectLabelCount(projectLabelCount);
+        response.setTaskLabelCount(taskLabelCount);
+        return response;
+    }
+}
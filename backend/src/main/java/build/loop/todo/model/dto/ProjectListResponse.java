@@ -10,10 +10,17 @@ import java.util.List;
 @Setter
 public class ProjectListResponse {
     private List<Project> projects;
+    private String nextCursor;
 
     public static ProjectListResponse of(List<Project> projects) {
         ProjectListResponse response = new ProjectListResponse();
         response.setProjects(projects);
         return response;
     }
+
+    public static ProjectListResponse of(List<Project> projects, String nextCursor) {
+        ProjectListResponse response = of(projects);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
 } 
\ No newline at end of file
@@ -10,10 +10,17 @@ import java.util.List;
 @Setter
 public class ProjectMemberListResponse {
     private List<ProjectMember> members;
+    private String nextCursor;
 
     public static ProjectMemberListResponse of(List<ProjectMember> members) {
         ProjectMemberListResponse response = new ProjectMemberListResponse();
         response.setMembers(members);
         return response;
     }
+
+    public static ProjectMemberListResponse of(List<ProjectMember> members, String nextCursor) {
+        ProjectMemberListResponse response = of(members);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
 } 
\ No newline at end of file
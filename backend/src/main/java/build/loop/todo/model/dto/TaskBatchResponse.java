@@ -0,0 +1,38 @@
+package build.loop.todo.model.dto;
+
+import build.loop.todo.model.entity.Task;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class TaskBatchResponse {
+    private List<Task> tasks;
+    private Stats stats;
+
+    public static TaskBatchResponse of(List<Task> tasks, Stats stats) {
+        TaskBatchResponse response = new TaskBatchResponse();
+        response.setTasks(tasks);
+        response.setStats(stats);
+        return response;
+    }
+
+    /**
+     * 本次批量写入实际发往数据库的开销，statements 为展开批处理后的 SQL 语句数，round_trips 为数据库往返次数
+     * 由数据源代理统计，monitoring.sql.enabled 关闭时均为 0
+     */
+    @Getter
+    public static class Stats {
+        private final int statements;
+        private final int roundTrips;
+        private final int batchSize;
+
+        public Stats(int statements, int roundTrips, int batchSize) {
+            this.statements = statements;
+            this.roundTrips = roundTrips;
+            this.batchSize = batchSize;
+        }
+    }
+}
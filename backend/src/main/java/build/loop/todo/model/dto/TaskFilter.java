@@ -0,0 +1,102 @@
+package build.loop.todo.model.dto;
+
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * 任务列表的过滤与排序条件
+ * 时间范围为左闭右开，created_after 包含边界，created_before 不包含
+ */
+@Getter
+@Setter
+public class TaskFilter {
+    private List<TaskStatus> statuses = List.of();
+    private List<TaskPriority> priorities = List.of();
+    // 带有其中任意一个标签即匹配
+    private List<String> labels = List.of();
+    private LocalDateTime createdAfter;
+    private LocalDateTime createdBefore;
+    private LocalDateTime updatedAfter;
+    private LocalDateTime updatedBefore;
+    private SortKey sortKey = SortKey.CREATED_AT;
+    private boolean descending;
+
+    public static TaskFilter of(
+            List<String> statuses,
+            List<String> priorities,
+            List<String> labels,
+            LocalDateTime createdAfter,
+            LocalDateTime createdBefore,
+            LocalDateTime updatedAfter,
+            LocalDateTime updatedBefore,
+            String sort
+    ) {
+        TaskFilter filter = new TaskFilter();
+        filter.setStatuses(parse(statuses, TaskStatus::fromValue));
+        filter.setPriorities(parse(priorities, TaskPriority::fromValue));
+        filter.setLabels(labels == null ? List.of() : List.copyOf(labels));
+        filter.setCreatedAfter(createdAfter);
+        filter.setCreatedBefore(createdBefore);
+        filter.setUpdatedAfter(updatedAfter);
+        filter.setUpdatedBefore(updatedBefore);
+        if (sort != null && !sort.isBlank()) {
+            // 前缀 - 表示降序，如 -priority
+            filter.setDescending(sort.startsWith("-"));
+            filter.setSortKey(SortKey.fromValue(filter.isDescending() ? sort.substring(1) : sort));
+        }
+        return filter;
+    }
+
+    /**
+     * 没有任何过滤条件且按默认的创建时间升序排列
+     */
+    public boolean isDefault() {
+        return statuses.isEmpty() && priorities.isEmpty() && labels.isEmpty()
+                && createdAfter == null && createdBefore == null
+                && updatedAfter == null && updatedBefore == null
+                && sortKey == SortKey.CREATED_AT && !descending;
+    }
+
+    private static <T> List<T> parse(List<String> values, Function<String, T> parser) {
+        if (values == null) {
+            return List.of();
+        }
+        try {
+            return values.stream().map(parser).distinct().toList();
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    public enum SortKey {
+        CREATED_AT("created_at"),
+        UPDATED_AT("updated_at"),
+        STATUS("status"),
+        PRIORITY("priority");
+
+        private final String value;
+
+        SortKey(String value) {
+            this.value = value;
+        }
+
+        public String getValue() {
+            return value;
+        }
+
+        public static SortKey fromValue(String value) {
+            for (SortKey key : SortKey.values()) {
+                if (key.value.equals(value)) {
+                    return key;
+                }
+            }
+            throw new IllegalStateException("Unknown sort key: " + value);
+        }
+    }
+}
@@ -10,10 +10,17 @@ import java.util.List;
 @Setter
 public class TaskListResponse {
     private List<Task> tasks;
+    private String nextCursor;
 
     public static TaskListResponse of(List<Task> tasks) {
         TaskListResponse response = new TaskListResponse();
         response.setTasks(tasks);
         return response;
     }
+
+    public static TaskListResponse of(List<Task> tasks, String nextCursor) {
+        TaskListResponse response = of(tasks);
+        response.setNextCursor(nextCursor);
+        return response;
+    }
 } 
\ No newline at end of file
@@ -0,0 +1,123 @@
+package build.loop.todo.model.dto;
+
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * 任务的 JSON Merge Patch（RFC 7396），为 null 的字段表示请求中未出现，保持原值
+ * 请求中显式给出 null 时 description 清空、labels 清空，title、status、priority 不可删除
+ */
+@Getter
+@Setter
+public class TaskPatch {
+    private static final int DESCRIPTION_MAX_LENGTH = 500;
+
+    private String title;
+    private String description;
+    private TaskStatus status;
+    private TaskPriority priority;
+    private List<String> labels;
+
+    public static TaskPatch of(JsonNode node) {
+        if (node == null || !node.isObject()) {
+            throw new IllegalStateException("Patch must be a JSON object");
+        }
+        TaskPatch patch = new TaskPatch();
+        for (Map.Entry<String, JsonNode> field : node.properties()) {
+            JsonNode value = field.getValue();
+            switch (field.getKey()) {
+                case "title" -> {
+                    String title = text(field.getKey(), value);
+                    if (title == null || title.isBlank()) {
+                        throw new IllegalStateException("Title must not be blank");
+                    }
+                    patch.setTitle(title);
+                }
+                case "description" -> {
+                    String description = text(field.getKey(), value);
+                    description = description == null || description.trim().isEmpty() ? "" : description;
+                    if (description.length() > DESCRIPTION_MAX_LENGTH) {
+                        throw new IllegalStateException("Description must be at most 500 characters");
+                    }
+                    patch.setDescription(description);
+                }
+                case "status" -> patch.setStatus(parse(field.getKey(), value, TaskStatus::fromValue));
+                case "priority" -> patch.setPriority(parse(field.getKey(), value, TaskPriority::fromValue));
+                case "labels" -> patch.setLabels(labels(value));
+                default -> throw new IllegalStateException("Unknown or read-only field: " + field.getKey());
+            }
+        }
+        return patch;
+    }
+
+    public static TaskPatch ofStatus(String status) {
+        TaskPatch patch = new TaskPatch();
+        patch.setStatus(parse("status", status, TaskStatus::fromValue));
+        return patch;
+    }
+
+    public static TaskPatch ofPriority(String priority) {
+        TaskPatch patch = new TaskPatch();
+        patch.setPriority(parse("priority", priority, TaskPriority::fromValue));
+        return patch;
+    }
+
+    public boolean isEmpty() {
+        return title == null && description == null && status == null && priority == null && labels == null;
+    }
+
+    private static String text(String name, JsonNode value) {
+        if (value.isNull()) {
+            return null;
+        }
+        if (!value.isTextual()) {
+            throw new IllegalStateException("Field must be a string: " + name);
+        }
+        return value.textValue();
+    }
+
+    private static <T> T parse(String name, JsonNode value, Function<String, T> parser) {
+        if (value.isNull()) {
+            throw new IllegalStateException("Field cannot be removed: " + name);
+        }
+        return parse(name, text(name, value), parser);
+    }
+
+    private static <T> T parse(String name, String value, Function<String, T> parser) {
+        if (value == null) {
+            throw new IllegalStateException("Field is required: " + name);
+        }
+        try {
+            return parser.apply(value);
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException(e.getMessage());
+        }
+    }
+
+    private static List<String> labels(JsonNode value) {
+        if (value.isNull()) {
+            return List.of();
+        }
+        if (!value.isArray()) {
+            throw new IllegalStateException("Field must be an array of strings: labels");
+        }
+        List<String> labels = new ArrayList<>(value.size());
+        for (JsonNode label : value) {
+            if (!label.isTextual()) {
+                throw new IllegalStateException("Field must be an array of strings: labels");
+            }
+            if (!labels.contains(label.textValue())) {
+                labels.add(label.textValue());
+            }
+        }
+        return labels;
+    }
+}
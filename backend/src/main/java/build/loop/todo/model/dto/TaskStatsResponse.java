@@ -0,0 +1,57 @@
+package build.loop.todo.model.dto;
+
+import build.loop.todo.model.entity.TaskCounter;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+@Getter
+@Setter
+public class TaskStatsResponse {
+    private long total;
+    private Map<String, Long> byStatus;
+    private Map<String, Long> byPriority;
+    private Map<String, Map<String, Long>> byStatusAndPriority;
+
+    /**
+     * 所有状态和优先级都会出现在结果中，没有任务的组合为 0
+     */
+    public static TaskStatsResponse of(List<TaskCounter> counters) {
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        Map<String, Long> byPriority = new LinkedHashMap<>();
+        Map<String, Map<String, Long>> byStatusAndPriority = new LinkedHashMap<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            byStatus.put(status.getValue(), 0L);
+            Map<String, Long> cells = new LinkedHashMap<>();
+            for (TaskPriority priority : TaskPriority.values()) {
+                cells.put(priority.getValue(), 0L);
+            }
+            byStatusAndPriority.put(status.getValue(), cells);
+        }
+        for (TaskPriority priority : TaskPriority.values()) {
+            byPriority.put(priority.getValue(), 0L);
+        }
+
+        long total = 0;
+        for (TaskCounter counter : counters) {
+            long count = counter.getTaskCount();
+            total += count;
+            byStatus.merge(counter.getStatus().getValue(), count, Long::sum);
+            byPriority.merge(counter.getPriority().getValue(), count, Long::sum);
+            byStatusAndPriority.get(counter.getStatus().getValue())
+                .merge(counter.getPriority().getValue(), count, Long::sum);
+        }
+
+        TaskStatsResponse response = new TaskStatsResponse();
+        response.setTotal(total);
+        response.setByStatus(byStatus);
+        response.setByPriority(byPriority);
+        response.setByStatusAndPriority(byStatusAndPriority);
+        return response;
+    }
+}
@@ -7,12 +7,17 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
 @Table(name = "projects")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "projects")
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Project extends BaseEntity {
@@ -32,8 +37,13 @@ public class Project extends BaseEntity {
     @JsonIgnore
     private List<ProjectMember> members = new ArrayList<>();
 
+    // 分页的项目列表只查询项目，未命中二级缓存的标签集合按批加载；不分页的列表已由实体图一并查询标签
     @ElementCollection
-    @CollectionTable(name = "project_labels", joinColumns = @JoinColumn(name = "project_id"))
+    @BatchSize(size = 1000)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "project-labels")
+    // 与 init-db.sql 的主键 (project_id, label) 一致，插入标签时依赖它判断冲突
+    @CollectionTable(name = "project_labels", joinColumns = @JoinColumn(name = "project_id"),
+        uniqueConstraints = @UniqueConstraint(columnNames = {"project_id", "label"}))
     @Column(name = "label")
     private List<String> labels = new ArrayList<>();
 } 
\ No newline at end of file
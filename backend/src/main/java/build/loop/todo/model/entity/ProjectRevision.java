@@ -0,0 +1,35 @@
+package build.loop.todo.model.entity;
+
+import build.loop.todo.model.UuidStringJavaType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JavaType;
+
+/**
+ * 项目版本号，任务、标签或成员发生任何变更时递增，用作看板接口的 ETag
+ * 单独成表，避免每次写入都更新 projects 行并失效项目的二级缓存
+ */
+@Entity
+@Table(name = "project_revisions")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ProjectRevision {
+    @Id
+    @Column(name = "project_id")
+    @JavaType(UuidStringJavaType.class)
+    private String projectId;
+
+    @Column(nullable = false)
+    private long revision;
+
+    public ProjectRevision(String projectId, long revision) {
+        this.projectId = projectId;
+        this.revision = revision;
+    }
+}
@@ -8,12 +8,19 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.BatchSize;
+import org.hibernate.annotations.OnDelete;
+import org.hibernate.annotations.OnDeleteAction;
 
 import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "tasks")
+@Table(name = "tasks", indexes = {
+    @Index(name = "idx_tasks_project_created", columnList = "project_id, created_at, id"),
+    @Index(name = "idx_tasks_project_status_priority", columnList = "project_id, status, priority, created_at"),
+    @Index(name = "idx_tasks_project_updated", columnList = "project_id, updated_at, id")
+})
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class Task extends BaseEntity {
@@ -73,13 +80,19 @@ public class Task extends BaseEntity {
         this.priority = TaskPriority.fromValue(value);
     }
 
+    // 任务列表按页批量加载标签，批大小与分页上限 PageCursor.MAX_LIMIT 一致，一页只需一次标签查询
     @ElementCollection
-    @CollectionTable(name = "task_labels", joinColumns = @JoinColumn(name = "task_id"))
+    @BatchSize(size = 1000)
+    @OnDelete(action = OnDeleteAction.CASCADE)
+    @CollectionTable(name = "task_labels", joinColumns = @JoinColumn(name = "task_id"), indexes = {
+        @Index(name = "idx_task_labels_label", columnList = "label, task_id")
+    })
     @Column(name = "label")
     private List<String> labels = new ArrayList<>();
 
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "project_id", nullable = false)
+    @OnDelete(action = OnDeleteAction.CASCADE)
     @JsonIgnore
     private Project project;
 } 
\ No newline at end of file
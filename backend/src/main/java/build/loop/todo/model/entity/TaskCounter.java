@@ -0,0 +1,82 @@
+package build.loop.todo.model.entity;
+
+import build.loop.todo.model.UuidStringJavaType;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.hibernate.annotations.JavaType;
+
+import java.io.Serializable;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 项目内某一状态与优先级组合下的任务数量
+ * 创建项目时预置全部组合，之后只做原地加减，统计接口的开销与项目规模无关
+ */
+@Entity
+@Table(name = "task_counters")
+@IdClass(TaskCounter.Key.class)
+@Getter
+@Setter
+@NoArgsConstructor
+public class TaskCounter {
+    @Id
+    @Column(name = "project_id")
+    @JavaType(UuidStringJavaType.class)
+    private String projectId;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private TaskStatus status;
+
+    @Id
+    @Enumerated(EnumType.STRING)
+    @Column(length = 50)
+    private TaskPriority priority;
+
+    @Column(name = "task_count", nullable = false)
+    private long taskCount;
+
+    public TaskCounter(String projectId, TaskStatus status, TaskPriority priority) {
+        this.projectId = projectId;
+        this.status = status;
+        this.priority = priority;
+    }
+
+    public Key key() {
+        return new Key(projectId, status, priority);
+    }
+
+    /**
+     * 项目的全部状态与优先级组合，数量均为 0
+     */
+    public static List<TaskCounter> emptyCounters(String projectId) {
+        List<TaskCounter> counters = new ArrayList<>();
+        for (TaskStatus status : TaskStatus.values()) {
+            for (TaskPriority priority : TaskPriority.values()) {
+                counters.add(new TaskCounter(projectId, status, priority));
+            }
+        }
+        return counters;
+    }
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String projectId;
+        private TaskStatus status;
+        private TaskPriority priority;
+    }
+}
@@ -4,9 +4,13 @@ import build.loop.todo.model.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Data;
 import lombok.EqualsAndHashCode;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 @Entity
 @Table(name = "user_settings")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "user-settings")
 @Data
 @EqualsAndHashCode(callSuper = true)
 public class UserSettings extends BaseEntity {
@@ -0,0 +1,82 @@
+package build.loop.todo.monitoring;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.health.Health;
+import org.springframework.boot.actuate.health.HealthIndicator;
+import org.springframework.stereotype.Component;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 数据库往返探测，从连接池取连接并执行一次 SELECT 1
+ * 分别记录取连接和查询往返的耗时，供 /api/v1/system/health 和 actuator 健康检查使用，
+ * 往返耗时同时计入 db.round-trip 指标
+ * 健康检查接口无需认证，失败原因只在管理端口的 actuator 健康检查中给出
+ */
+@Component
+@Slf4j
+public class DatabaseRoundTripProbe implements HealthIndicator {
+    private static final int QUERY_TIMEOUT_SECONDS = 2;
+
+    private final DataSource dataSource;
+    private final Timer roundTrip;
+
+    public DatabaseRoundTripProbe(DataSource dataSource, MeterRegistry meterRegistry) {
+        this.dataSource = dataSource;
+        this.roundTrip = Timer.builder("db.round-trip").register(meterRegistry);
+    }
+
+    public Result probe() {
+        long start = System.nanoTime();
+        try (Connection connection = dataSource.getConnection()) {
+            long acquired = System.nanoTime();
+            try (Statement statement = connection.createStatement()) {
+                statement.setQueryTimeout(QUERY_TIMEOUT_SECONDS);
+                statement.execute("SELECT 1");
+            }
+            long finished = System.nanoTime();
+            roundTrip.record(finished - acquired, TimeUnit.NANOSECONDS);
+            return new Result(true, acquired - start, finished - acquired, null);
+        } catch (SQLException e) {
+            log.warn("Database health probe failed", e);
+            return new Result(false, System.nanoTime() - start, 0, e.getMessage());
+        }
+    }
+
+    @Override
+    public Health health() {
+        Result result = probe();
+        Health.Builder health = (result.up() ? Health.up() : Health.down()).withDetails(result.toMap());
+        if (result.error() != null) {
+            health.withDetail("error", result.error());
+        }
+        return health.build();
+    }
+
+    public record Result(boolean up, long acquireNanos, long roundTripNanos, String error) {
+        /**
+         * 状态和耗时，不包含错误信息
+         */
+        public Map<String, Object> toMap() {
+            Map<String, Object> details = new LinkedHashMap<>();
+            details.put("status", up ? "UP" : "DOWN");
+            details.put("connection_acquire_ms", millis(acquireNanos));
+            if (up) {
+                details.put("round_trip_ms", millis(roundTripNanos));
+            }
+            return details;
+        }
+
+        private static double millis(long nanos) {
+            return Math.round(nanos / 1_000.0) / 1_000.0;
+        }
+    }
+}
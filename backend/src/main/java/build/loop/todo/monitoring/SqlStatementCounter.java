@@ -0,0 +1,88 @@
+package build.loop.todo.monitoring;
+
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+
+import java.sql.ResultSet;
+import java.util.List;
+
+/**
+ * 统计当前线程上的数据库往返次数、语句数、读取行数和耗时
+ * 作为数据源代理的监听器注册，只在通过 {@link #open()} 打开的范围内计数
+ * <p>
+ * 测试中可直接用来断言语句数量：
+ * <pre>
+ * try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+ *     mockMvc.perform(get("/api/v1/projects/{id}/tasks", id));
+ *     assertThat(scope.getStatistics().getRoundTrips()).isLessThanOrEqualTo(3);
+ * }
+ * </pre>
+ */
+public class SqlStatementCounter implements QueryExecutionListener, MethodExecutionListener {
+    private static final ThreadLocal<SqlStatistics> CURRENT = new ThreadLocal<>();
+
+    /**
+     * 打开一个统计范围，关闭时恢复外层范围并把本范围的计数累加到外层
+     */
+    public static Scope open() {
+        Scope scope = new Scope(CURRENT.get());
+        CURRENT.set(scope.statistics);
+        return scope;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics == null || queryInfoList.isEmpty()) {
+            return;
+        }
+        // 一次 executeBatch 只有一次数据库往返，按第一条语句的形态计数
+        int statements = execInfo.isBatch() ? execInfo.getBatchSize() : queryInfoList.size();
+        statistics.recordRoundTrip(queryInfoList.get(0).getQuery(), statements, execInfo.getElapsedTime());
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        SqlStatistics statistics = CURRENT.get();
+        if (statistics != null
+                && executionContext.getTarget() instanceof ResultSet
+                && "next".equals(executionContext.getMethod().getName())
+                && Boolean.TRUE.equals(executionContext.getResult())) {
+            statistics.recordRow();
+        }
+    }
+
+    public static class Scope implements AutoCloseable {
+        private final SqlStatistics outer;
+        private final SqlStatistics statistics = new SqlStatistics();
+
+        private Scope(SqlStatistics outer) {
+            this.outer = outer;
+        }
+
+        public SqlStatistics getStatistics() {
+            return statistics;
+        }
+
+        @Override
+        public void close() {
+            if (outer == null) {
+                CURRENT.remove();
+            } else {
+                outer.merge(statistics);
+                CURRENT.set(outer);
+            }
+        }
+    }
+}
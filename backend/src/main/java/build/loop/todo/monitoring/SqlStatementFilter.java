@@ -0,0 +1,114 @@
+package build.loop.todo.monitoring;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.core.annotation.Order;
+import org.springframework.lang.NonNull;
+import org.springframework.security.web.util.OnCommittedResponseWrapper;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * 统计每个请求的数据库开销，在安全过滤器链之前执行以覆盖整个请求
+ * 响应提交时写入统计头，请求结束时输出 debug 日志，同一 SQL 形态重复执行超过阈值时输出告警
+ */
+@Component
+@Order(SecurityProperties.DEFAULT_FILTER_ORDER - 1)
+@Slf4j
+public class SqlStatementFilter extends OncePerRequestFilter {
+    public static final String STATEMENTS_HEADER = "X-Sql-Statements";
+    public static final String ROUND_TRIPS_HEADER = "X-Sql-Round-Trips";
+    public static final String ROWS_HEADER = "X-Sql-Rows";
+    public static final String TIME_HEADER = "X-Sql-Time-Ms";
+    public static final String REPEATED_HEADER = "X-Sql-Repeated";
+
+    private final boolean enabled;
+    private final boolean responseHeaders;
+    private final int repeatThreshold;
+
+    public SqlStatementFilter(
+            @Value("${monitoring.sql.enabled:true}") boolean enabled,
+            @Value("${monitoring.sql.response-headers:true}") boolean responseHeaders,
+            @Value("${monitoring.sql.repeat-threshold:10}") int repeatThreshold
+    ) {
+        this.enabled = enabled;
+        this.responseHeaders = responseHeaders;
+        this.repeatThreshold = repeatThreshold;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(@NonNull HttpServletRequest request) {
+        return !enabled;
+    }
+
+    @Override
+    protected void doFilterInternal(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull FilterChain filterChain
+    ) throws ServletException, IOException {
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            SqlStatistics statistics = scope.getStatistics();
+            StatisticsHeaderResponse wrapped = new StatisticsHeaderResponse(response, statistics);
+            try {
+                filterChain.doFilter(request, wrapped);
+            } finally {
+                // 响应体未触发提交时在这里补写统计头
+                wrapped.writeHeaders();
+                report(request, statistics);
+            }
+        }
+    }
+
+    private void report(HttpServletRequest request, SqlStatistics statistics) {
+        if (statistics.getRoundTrips() == 0) {
+            return;
+        }
+        log.debug("{} {}: {} statements in {} round trips, {} rows, {} ms in database",
+                request.getMethod(), request.getRequestURI(), statistics.getStatements(),
+                statistics.getRoundTrips(), statistics.getRows(), statistics.getElapsedMillis());
+        Map<String, Integer> repeated = statistics.getRepeatedShapes(repeatThreshold);
+        repeated.forEach((shape, count) -> log.warn("Possible N+1 on {} {}: executed {} times: {}",
+                request.getMethod(), request.getRequestURI(), count, shape));
+    }
+
+    private class StatisticsHeaderResponse extends OnCommittedResponseWrapper {
+        private final SqlStatistics statistics;
+
+        StatisticsHeaderResponse(HttpServletResponse response, SqlStatistics statistics) {
+            super(response);
+            this.statistics = statistics;
+        }
+
+        @Override
+        protected void onResponseCommitted() {
+            writeHeaders();
+        }
+
+        void writeHeaders() {
+            if (isDisableOnResponseCommitted()) {
+                return;
+            }
+            disableOnResponseCommitted();
+            HttpServletResponse response = (HttpServletResponse) getResponse();
+            if (!responseHeaders || response.isCommitted()) {
+                return;
+            }
+            response.setHeader(STATEMENTS_HEADER, String.valueOf(statistics.getStatements()));
+            response.setHeader(ROUND_TRIPS_HEADER, String.valueOf(statistics.getRoundTrips()));
+            response.setHeader(ROWS_HEADER, String.valueOf(statistics.getRows()));
+            response.setHeader(TIME_HEADER, String.valueOf(statistics.getElapsedMillis()));
+            statistics.getRepeatedShapes(repeatThreshold).values().stream()
+                    .max(Integer::compare)
+                    .ifPresent(count -> response.setHeader(REPEATED_HEADER, String.valueOf(count)));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package build.loop.todo.monitoring;
+
+import lombok.Getter;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * 一个统计范围（通常是一次 HTTP 请求）内的数据库开销
+ * 每次 execute 或 executeBatch 计为一次数据库往返（roundTrips）；statements 为展开批量执行后的语句条数，
+ * 与 TaskBatchResponse.Stats 的同名字段含义一致
+ * rows 为从结果集中读取的行数
+ */
+@Getter
+public class SqlStatistics {
+    private static final Pattern STRING_LITERAL = Pattern.compile("'(?:[^']|'')*'");
+    private static final Pattern NUMBER_LITERAL = Pattern.compile("\\b\\d+(?:\\.\\d+)?\\b");
+    private static final Pattern IN_LIST = Pattern.compile("\\(\\s*\\?(?:\\s*,\\s*\\?)*\\s*\\)");
+    private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+
+    private long roundTrips;
+    private long statements;
+    private long rows;
+    private long elapsedMillis;
+    // 按 SQL 形态统计执行次数，用于发现 N+1 查询
+    private final Map<String, Integer> shapes = new HashMap<>();
+
+    void recordRoundTrip(String sql, int statements, long elapsedMillis) {
+        roundTrips++;
+        this.statements += statements;
+        this.elapsedMillis += elapsedMillis;
+        shapes.merge(shapeOf(sql), 1, Integer::sum);
+    }
+
+    void recordRow() {
+        rows++;
+    }
+
+    void merge(SqlStatistics other) {
+        roundTrips += other.roundTrips;
+        statements += other.statements;
+        rows += other.rows;
+        elapsedMillis += other.elapsedMillis;
+        other.shapes.forEach((shape, count) -> shapes.merge(shape, count, Integer::sum));
+    }
+
+    /**
+     * 返回执行次数超过阈值的 SQL 形态及其次数
+     */
+    public Map<String, Integer> getRepeatedShapes(int threshold) {
+        Map<String, Integer> repeated = new HashMap<>();
+        shapes.forEach((shape, count) -> {
+            if (count > threshold) {
+                repeated.put(shape, count);
+            }
+        });
+        return repeated;
+    }
+
+    /**
+     * 将 SQL 归一化为形态：字面量替换为占位符，IN 列表折叠为单个占位符
+     */
+    static String shapeOf(String sql) {
+        String shape = STRING_LITERAL.matcher(sql).replaceAll("?");
+        shape = NUMBER_LITERAL.matcher(shape).replaceAll("?");
+        shape = IN_LIST.matcher(shape).replaceAll("(?)");
+        return WHITESPACE.matcher(shape).replaceAll(" ").trim();
+    }
+}
@@ -0,0 +1,90 @@
+package build.loop.todo.monitoring;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 虚拟线程模式下监听 JFR 的 jdk.VirtualThreadPinned 事件
+ * 虚拟线程在 synchronized 块或本地方法中阻塞时会占住载体线程，超过阈值的事件计入指标，
+ * 每个位置首次出现时输出告警和调用栈，用于定位需要改为 ReentrantLock 的代码或依赖
+ */
+@Component
+@ConditionalOnThreading(Threading.VIRTUAL)
+@Slf4j
+public class VirtualThreadPinningMonitor {
+    private static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    private static final String APPLICATION_PACKAGE = "build.loop.todo.";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final Duration threshold;
+    private final Counter pinned;
+    private final Set<String> reportedSites = ConcurrentHashMap.newKeySet();
+    private RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(
+            MeterRegistry meterRegistry,
+            @Value("${monitoring.virtual-threads.pinned-threshold:20ms}") Duration threshold
+    ) {
+        this.threshold = threshold;
+        this.pinned = Counter.builder("jvm.threads.virtual.pinned").register(meterRegistry);
+    }
+
+    @PostConstruct
+    void start() {
+        stream = new RecordingStream();
+        stream.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        stream.onEvent(PINNED_EVENT, this::onPinned);
+        stream.startAsync();
+    }
+
+    @PreDestroy
+    void stop() {
+        stream.close();
+    }
+
+    private void onPinned(RecordedEvent event) {
+        pinned.increment();
+        RecordedStackTrace stackTrace = event.getStackTrace();
+        if (stackTrace == null || stackTrace.getFrames().isEmpty()) {
+            return;
+        }
+        String site = site(stackTrace);
+        if (!reportedSites.add(site)) {
+            return;
+        }
+        StringBuilder frames = new StringBuilder();
+        stackTrace.getFrames().stream().limit(LOGGED_FRAMES)
+                .forEach(frame -> frames.append("\n\tat ").append(describe(frame)));
+        log.warn("Virtual thread pinned for {} ms at {}{}", event.getDuration().toMillis(), site, frames);
+    }
+
+    /**
+     * 以第一个应用代码帧作为位置，没有应用代码时取栈顶
+     */
+    private static String site(RecordedStackTrace stackTrace) {
+        return stackTrace.getFrames().stream()
+                .filter(frame -> frame.getMethod().getType().getName().startsWith(APPLICATION_PACKAGE))
+                .findFirst()
+                .map(VirtualThreadPinningMonitor::describe)
+                .orElseGet(() -> describe(stackTrace.getFrames().getFirst()));
+    }
+
+    private static String describe(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
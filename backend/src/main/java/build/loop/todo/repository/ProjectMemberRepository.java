@@ -2,23 +2,37 @@ package build.loop.todo.repository;
 
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.ProjectMember;
+import build.loop.todo.model.entity.ProjectRole;
 import build.loop.todo.model.entity.User;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface ProjectMemberRepository extends JpaRepository<ProjectMember, String> {
     
-    @Query("SELECT pm FROM ProjectMember pm JOIN FETCH pm.project WHERE pm.user = :user")
-    List<ProjectMember> findByUser(User user);
-    
+    // 成员列表序列化时需要用户名和邮箱，随成员一起连接查询用户
+    @EntityGraph(attributePaths = "user")
     List<ProjectMember> findByProject(Project project);
+
+    @EntityGraph(attributePaths = "user")
+    List<ProjectMember> findByProjectOrderByCreatedAtAscIdAsc(Project project, Limit limit);
+
+    @Query("SELECT pm FROM ProjectMember pm JOIN FETCH pm.user WHERE pm.project = :project " +
+           "AND (pm.createdAt > :createdAt OR (pm.createdAt = :createdAt AND pm.id > :id)) " +
+           "ORDER BY pm.createdAt, pm.id")
+    List<ProjectMember> findPageAfter(Project project, LocalDateTime createdAt, String id, Limit limit);
     
     Optional<ProjectMember> findByProjectAndUser(Project project, User user);
-    
-    void deleteByProject(Project project);
+
+    long countByProjectAndRole(Project project, ProjectRole role);
+
+    @Query("SELECT pm.role FROM ProjectMember pm WHERE pm.project.id = :projectId AND pm.user.id = :userId")
+    Optional<ProjectRole> findRole(String projectId, String userId);
 } 
\ No newline at end of file
@@ -2,19 +2,39 @@ package build.loop.todo.repository;
 
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
-import java.util.Set;
 
 @Repository
 public interface ProjectRepository extends JpaRepository<Project, String> {
     
-    @Query("SELECT p FROM Project p JOIN p.members m WHERE m.user = :user")
+    @EntityGraph(attributePaths = "labels")
+    @Query("SELECT p FROM Project p JOIN p.members m WHERE m.user = :user ORDER BY p.createdAt, p.id")
     List<Project> findAllByUser(User user);
+
+    @Query("SELECT p.id FROM Project p")
+    List<String> findAllIds();
+
+    @Query("SELECT p FROM Project p JOIN p.members m WHERE m.user = :user ORDER BY p.createdAt, p.id")
+    List<Project> findPageByUser(User user, Limit limit);
+
+    @Query("SELECT p FROM Project p JOIN p.members m WHERE m.user = :user " +
+           "AND (p.createdAt > :createdAt OR (p.createdAt = :createdAt AND p.id > :id)) " +
+           "ORDER BY p.createdAt, p.id")
+    List<Project> findPageByUserAfter(User user, LocalDateTime createdAt, String id, Limit limit);
     
     @Query("SELECT CASE WHEN COUNT(p) > 0 THEN true ELSE false END FROM Project p " +
            "JOIN p.members m WHERE p.id = :projectId AND m.user.id = :userId")
@@ -24,10 +44,53 @@ public interface ProjectRepository extends JpaRepository<Project, String> {
            "JOIN p.members m WHERE p.id = :projectId AND m.user.id = :userId AND m.role = 'OWNER'")
     boolean isUserOwnerOfProject(String projectId, String userId);
 
-    @Modifying
-    @Query("DELETE FROM Project p WHERE p.id IN :projectIds")
-    void deleteByIdIn(Set<String> projectIds);
+    /**
+     * 锁住用户拥有的项目并返回其 ID，批量删除据此确定实际删除了哪些项目
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT p.id FROM Project p WHERE p.id IN :projectIds AND EXISTS (" +
+           "SELECT 1 FROM ProjectMember m WHERE m.project = p AND m.user.id = :userId AND m.role = 'OWNER')")
+    List<String> lockOwnedIdsIn(Collection<String> projectIds, String userId);
+
+    /**
+     * 单条语句删除用户拥有的项目，任务、成员和标签由数据库 ON DELETE CASCADE 级联删除
+     * 原生语句通过 NATIVE_SPACES 声明涉及的表，二级缓存只失效这些表对应的区域
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "projects"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_members"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_labels"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_labels")
+    })
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM projects WHERE id IN (:projectIds) AND EXISTS (" +
+           "SELECT 1 FROM project_members m WHERE m.project_id = projects.id " +
+           "AND m.user_id = :userId AND m.role = 'OWNER')", nativeQuery = true)
+    int deleteOwnedByIdIn(Collection<String> projectIds, String userId);
+
+    @Query("SELECT CASE WHEN COUNT(l) > 0 THEN true ELSE false END FROM Project p " +
+           "JOIN p.labels l WHERE p.id = :projectId AND l = :label")
+    boolean hasLabel(String projectId, String label);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_labels"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM project_labels WHERE project_id = :projectId AND label IN (:labels)", nativeQuery = true)
+    int deleteLabels(String projectId, Collection<String> labels);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_labels"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE project_labels SET label = :target WHERE project_id = :projectId AND label = :source", nativeQuery = true)
+    int renameLabel(String projectId, String source, String target);
 
-    @Query("SELECT COUNT(p) FROM Project p WHERE p.id IN :projectIds")
-    long countByIdIn(Set<String> projectIds);
+    /**
+     * 标签不存在时插入，与主键 (project_id, label) 冲突时什么也不做
+     * 并发添加同一标签时由主键裁决，后到的插入返回 0 而不是抛出唯一约束异常
+     * 返回插入的行数，标签已存在时为 0
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_labels"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "INSERT INTO project_labels (project_id, label) VALUES (:projectId, :label) " +
+           "ON CONFLICT DO NOTHING", nativeQuery = true)
+    int insertLabel(String projectId, String label);
 } 
\ No newline at end of file
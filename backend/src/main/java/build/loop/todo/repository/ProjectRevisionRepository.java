@@ -0,0 +1,36 @@
+package build.loop.todo.repository;
+
+import build.loop.todo.model.entity.ProjectRevision;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+
+@Repository
+public interface ProjectRevisionRepository extends JpaRepository<ProjectRevision, String> {
+
+    @Query("SELECT r.revision FROM ProjectRevision r WHERE r.projectId = :projectId")
+    Optional<Long> findRevision(String projectId);
+
+    /**
+     * 原地递增版本号，不清空持久化上下文，可在服务方法中间调用
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "project_revisions"))
+    @Modifying
+    @Query(value = "UPDATE project_revisions SET revision = revision + 1 WHERE project_id = :projectId", nativeQuery = true)
+    int increment(String projectId);
+
+    /**
+     * 递增项目版本号，早于版本表创建的项目没有对应行时补建
+     */
+    default void bump(String projectId) {
+        if (increment(projectId) == 0) {
+            save(new ProjectRevision(projectId, 1));
+        }
+    }
+}
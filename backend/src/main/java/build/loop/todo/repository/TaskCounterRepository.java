@@ -0,0 +1,43 @@
+package build.loop.todo.repository;
+
+import build.loop.todo.model.entity.TaskCounter;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+
+@Repository
+public interface TaskCounterRepository extends JpaRepository<TaskCounter, TaskCounter.Key> {
+
+    List<TaskCounter> findByProjectId(String projectId);
+
+    /**
+     * 对账前锁住项目的全部计数行，之后统计任务表时不会漏掉并发写入的增量
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT c FROM TaskCounter c WHERE c.projectId = :projectId")
+    List<TaskCounter> lockByProjectId(String projectId);
+
+    /**
+     * 原地加减计数，不清空持久化上下文，可在服务方法中间调用
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_counters"))
+    @Modifying
+    @Query(value = "UPDATE task_counters SET task_count = task_count + :delta " +
+                   "WHERE project_id = :projectId AND status = :status AND priority = :priority", nativeQuery = true)
+    int increment(String projectId, String status, String priority, long delta);
+
+    /**
+     * 早于计数表创建、尚未预置计数行的项目
+     */
+    @Query(value = "SELECT CAST(p.id AS VARCHAR) FROM projects p " +
+                   "WHERE NOT EXISTS (SELECT 1 FROM task_counters c WHERE c.project_id = p.id)", nativeQuery = true)
+    List<String> findProjectIdsWithoutCounters();
+}
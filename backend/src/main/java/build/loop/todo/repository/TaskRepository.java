@@ -2,14 +2,100 @@ package build.loop.todo.repository;
 
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.Task;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, String> {
+public interface TaskRepository extends JpaRepository<Task, String>, JpaSpecificationExecutor<Task> {
+    /**
+     * 不分页时一次连接查询取回任务及其标签
+     */
+    @EntityGraph(attributePaths = "labels")
     List<Task> findByProject(Project project);
-    
-    void deleteByProject(Project project);
+
+    /**
+     * 按 ID 取回搜索命中的任务，项目条件防止索引与数据库不一致时返回其他项目的任务
+     */
+    @EntityGraph(attributePaths = "labels")
+    List<Task> findByProjectAndIdIn(Project project, Collection<String> ids);
+
+    /**
+     * 加行锁读取任务，保证读到的旧状态与计数表上的增减一致
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.id = :id")
+    Optional<Task> findByIdForUpdate(String id);
+
+    /**
+     * 删除前锁住任务并取得其状态和优先级，用于扣减计数
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Task t WHERE t.project.id = :projectId AND t.id IN :taskIds")
+    List<Task> lockByProjectIdAndIdIn(String projectId, Collection<String> taskIds);
+
+    @Query("SELECT t.status, t.priority, COUNT(t) FROM Task t WHERE t.project.id = :projectId " +
+           "GROUP BY t.status, t.priority")
+    List<Object[]> countByStatusAndPriority(String projectId);
+
+    List<Task> findByProjectOrderByCreatedAtAscIdAsc(Project project, Limit limit);
+
+    @Query("SELECT t FROM Task t WHERE t.project = :project " +
+           "AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) " +
+           "ORDER BY t.createdAt, t.id")
+    List<Task> findPageAfter(Project project, LocalDateTime createdAt, String id, Limit limit);
+
+    /**
+     * 以服务端游标逐批读取项目下的任务，需在只读事务中消费并关闭
+     * 按 id 聚集的排序保证同一任务的标签行相邻，便于流式组装标签集合
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t LEFT JOIN FETCH t.labels WHERE t.project = :project ORDER BY t.createdAt, t.id")
+    Stream<Task> streamByProject(Project project);
+
+    /**
+     * 单条语句删除属于指定项目的任务，task_labels 由数据库 ON DELETE CASCADE 级联删除
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "tasks"),
+        @QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_labels")
+    })
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM tasks WHERE project_id = :projectId AND id IN (:taskIds)", nativeQuery = true)
+    int deleteByProjectIdAndIdIn(String projectId, Collection<String> taskIds);
+
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_labels"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "DELETE FROM task_labels WHERE label IN (:labels) " +
+                   "AND task_id IN (SELECT id FROM tasks WHERE project_id = :projectId)", nativeQuery = true)
+    int deleteLabels(String projectId, Collection<String> labels);
+
+    /**
+     * 将项目内任务的 source 标签改为 target，已带有 target 标签的任务保持不变，其 source 标签需另行删除
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_NATIVE_SPACES, value = "task_labels"))
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query(value = "UPDATE task_labels SET label = :target WHERE label = :source " +
+                   "AND task_id IN (SELECT id FROM tasks WHERE project_id = :projectId) " +
+                   "AND NOT EXISTS (SELECT 1 FROM task_labels other " +
+                   "WHERE other.task_id = task_labels.task_id AND other.label = :target)", nativeQuery = true)
+    int replaceLabel(String projectId, String source, String target);
 } 
\ No newline at end of file
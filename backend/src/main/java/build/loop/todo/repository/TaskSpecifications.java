@@ -0,0 +1,189 @@
+package build.loop.todo.repository;
+
+import build.loop.todo.model.dto.TaskFilter;
+import build.loop.todo.model.entity.Project;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import build.loop.todo.util.Ids;
+import build.loop.todo.util.KeysetCursor;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+
+/**
+ * 任务列表的动态查询条件
+ * 状态、优先级过滤可以使用 idx_tasks_project_status_priority，标签条件走 task_labels 的标签索引；
+ * 按创建时间、更新时间排序和翻页分别由 idx_tasks_project_created、idx_tasks_project_updated 提供顺序
+ * 状态与优先级按权重排序，而不是按枚举名的字母顺序。权重是 CASE 表达式，没有索引能提供这一顺序，
+ * 这两种排序及其 keyset 条件需要数据库在过滤后的该项目任务上排序
+ */
+public final class TaskSpecifications {
+    private TaskSpecifications() {
+    }
+
+    /**
+     * 过滤条件、排序以及 after 之后的 keyset 分页条件，after 为 null 时从第一行开始
+     */
+    public static Specification<Task> page(Project project, TaskFilter filter, KeysetCursor after) {
+        List<SortColumn> columns = sortColumns(filter);
+        // 游标在构造查询前解析，格式错误直接作为请求错误抛出，不会被仓库层转换为数据访问异常
+        List<Comparable<?>> afterValues = after == null ? null : parseCursor(columns, after);
+        return (root, query, cb) -> {
+            List<Predicate> predicates = new ArrayList<>();
+            predicates.add(cb.equal(root.get("project"), project));
+            if (!filter.getStatuses().isEmpty()) {
+                predicates.add(root.get("status").in(filter.getStatuses()));
+            }
+            if (!filter.getPriorities().isEmpty()) {
+                predicates.add(root.get("priority").in(filter.getPriorities()));
+            }
+            if (!filter.getLabels().isEmpty()) {
+                Subquery<String> labelled = query.subquery(String.class);
+                Root<Task> labelledTask = labelled.correlate(root);
+                labelled.select(labelledTask.get("id"))
+                        .where(labelledTask.join("labels").in(filter.getLabels()));
+                predicates.add(cb.exists(labelled));
+            }
+            addRange(predicates, cb, root.get("createdAt"), filter.getCreatedAfter(), filter.getCreatedBefore());
+            addRange(predicates, cb, root.get("updatedAt"), filter.getUpdatedAfter(), filter.getUpdatedBefore());
+            if (afterValues != null) {
+                predicates.add(after(root, cb, columns, afterValues));
+            }
+
+            List<Order> orders = new ArrayList<>(columns.size());
+            for (SortColumn column : columns) {
+                Expression<?> expression = column.expression().apply(root, cb);
+                orders.add(column.descending() ? cb.desc(expression) : cb.asc(expression));
+            }
+            query.orderBy(orders);
+            return cb.and(predicates.toArray(Predicate[]::new));
+        };
+    }
+
+    /**
+     * 以本页最后一行生成下一页的游标
+     */
+    public static KeysetCursor cursorOf(Task last, TaskFilter filter) {
+        return new KeysetCursor(sortColumns(filter).stream().map(column -> column.value().apply(last)).toList());
+    }
+
+    /**
+     * 排序列的最后一列总是 id，保证顺序唯一；状态和优先级同权重时按创建时间升序
+     */
+    private static List<SortColumn> sortColumns(TaskFilter filter) {
+        boolean desc = filter.isDescending();
+        SortColumn createdAt = new SortColumn((root, cb) -> root.get("createdAt"),
+                task -> task.getCreatedAt().toString(), TaskSpecifications::parseTimestamp, false);
+        SortColumn id = new SortColumn((root, cb) -> root.get("id"), Task::getId, TaskSpecifications::parseId, false);
+        return switch (filter.getSortKey()) {
+            case CREATED_AT -> List.of(createdAt.withDescending(desc), id.withDescending(desc));
+            case UPDATED_AT -> List.of(
+                    new SortColumn((root, cb) -> root.get("updatedAt"),
+                            task -> task.getUpdatedAt().toString(), TaskSpecifications::parseTimestamp, desc),
+                    id.withDescending(desc));
+            case STATUS -> List.of(
+                    new SortColumn(TaskSpecifications::statusWeight,
+                            task -> Integer.toString(task.getStatus().getWeight()), Integer::valueOf, desc),
+                    createdAt, id);
+            case PRIORITY -> List.of(
+                    new SortColumn(TaskSpecifications::priorityWeight,
+                            task -> Integer.toString(task.getPriority().getWeight()), Integer::valueOf, desc),
+                    createdAt, id);
+        };
+    }
+
+    /**
+     * (c1, c2, ..., id) 按各列方向严格位于游标之后：c1 在后，或 c1 相等且其余列在后
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate after(Root<Task> root, CriteriaBuilder cb, List<SortColumn> columns,
+                                   List<Comparable<?>> values) {
+        Predicate predicate = null;
+        for (int i = columns.size() - 1; i >= 0; i--) {
+            SortColumn column = columns.get(i);
+            Expression expression = column.expression().apply(root, cb);
+            Comparable value = values.get(i);
+            Predicate beyond = column.descending() ? cb.lessThan(expression, value) : cb.greaterThan(expression, value);
+            predicate = predicate == null ? beyond : cb.or(beyond, cb.and(cb.equal(expression, value), predicate));
+        }
+        return predicate;
+    }
+
+    /**
+     * 按各排序列的类型解析游标中的值，列数或格式不符时视为无效游标
+     */
+    private static List<Comparable<?>> parseCursor(List<SortColumn> columns, KeysetCursor cursor) {
+        if (cursor.values().size() != columns.size()) {
+            throw new IllegalStateException("Invalid cursor");
+        }
+        List<Comparable<?>> values = new ArrayList<>(columns.size());
+        for (int i = 0; i < columns.size(); i++) {
+            try {
+                values.add(columns.get(i).parse().apply(cursor.values().get(i)));
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalStateException("Invalid cursor");
+            }
+        }
+        return values;
+    }
+
+    private static Expression<Integer> statusWeight(Root<Task> root, CriteriaBuilder cb) {
+        CriteriaBuilder.SimpleCase<TaskStatus, Integer> weight = cb.selectCase(root.get("status"));
+        for (TaskStatus status : TaskStatus.values()) {
+            weight.when(status, cb.literal(status.getWeight()));
+        }
+        return weight.otherwise(cb.literal(0));
+    }
+
+    private static Expression<Integer> priorityWeight(Root<Task> root, CriteriaBuilder cb) {
+        CriteriaBuilder.SimpleCase<TaskPriority, Integer> weight = cb.selectCase(root.get("priority"));
+        for (TaskPriority priority : TaskPriority.values()) {
+            weight.when(priority, cb.literal(priority.getWeight()));
+        }
+        return weight.otherwise(cb.literal(0));
+    }
+
+    private static void addRange(List<Predicate> predicates, CriteriaBuilder cb, Expression<LocalDateTime> path,
+                                 LocalDateTime from, LocalDateTime to) {
+        if (from != null) {
+            predicates.add(cb.greaterThanOrEqualTo(path, from));
+        }
+        if (to != null) {
+            predicates.add(cb.lessThan(path, to));
+        }
+    }
+
+    private static LocalDateTime parseTimestamp(String value) {
+        return LocalDateTime.parse(value);
+    }
+
+    private static String parseId(String value) {
+        if (!Ids.isValid(value)) {
+            throw new IllegalStateException("Invalid cursor");
+        }
+        return value;
+    }
+
+    private record SortColumn(
+            BiFunction<Root<Task>, CriteriaBuilder, Expression<?>> expression,
+            Function<Task, String> value,
+            Function<String, Comparable<?>> parse,
+            boolean descending
+    ) {
+        SortColumn withDescending(boolean descending) {
+            return new SortColumn(expression, value, parse, descending);
+        }
+    }
+}
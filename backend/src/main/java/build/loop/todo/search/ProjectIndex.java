@@ -0,0 +1,190 @@
+package build.loop.todo.search;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.UnaryOperator;
+
+/**
+ * 单个项目的倒排索引，词项有序存放以支持前缀匹配
+ * 读多写少，使用读写锁；搜索只在本项目的任务范围内进行，延迟与项目规模而不是全库规模相关
+ */
+final class ProjectIndex {
+    private static final int TITLE_WEIGHT = 3;
+    private static final int LABEL_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    // 前缀匹配最多展开的词项数，避免一两个字母的前缀扫描整个词典
+    private static final int MAX_PREFIX_EXPANSION = 64;
+    // 前缀命中的得分折扣，完整单词命中排在前面
+    private static final double PREFIX_FACTOR = 0.5;
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Document> documents = new HashMap<>();
+    private final NavigableMap<String, Map<String, Integer>> postings = new TreeMap<>();
+
+    /**
+     * terms 为词项到加权词频的映射，保留标签以便标签批量改名时增量更新
+     */
+    private record Document(List<String> labels, Map<String, Integer> terms) {
+    }
+
+    void put(String taskId, String title, String description, List<String> labels) {
+        Map<String, Integer> terms = new HashMap<>();
+        addTerms(terms, title, TITLE_WEIGHT);
+        addTerms(terms, description, DESCRIPTION_WEIGHT);
+        labels.forEach(label -> addTerms(terms, label, LABEL_WEIGHT));
+        lock.writeLock().lock();
+        try {
+            removeLocked(taskId);
+            insertLocked(taskId, new Document(labels, terms));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(Collection<String> taskIds) {
+        lock.writeLock().lock();
+        try {
+            taskIds.forEach(this::removeLocked);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 对带有指定标签的任务重新计算标签词项，用于标签的批量删除、改名与合并
+     */
+    void relabel(Collection<String> affected, UnaryOperator<List<String>> change) {
+        lock.writeLock().lock();
+        try {
+            List<String> taskIds = documents.entrySet().stream()
+                    .filter(entry -> entry.getValue().labels().stream().anyMatch(affected::contains))
+                    .map(Map.Entry::getKey)
+                    .toList();
+            for (String taskId : taskIds) {
+                Document document = documents.get(taskId);
+                Map<String, Integer> terms = new HashMap<>(document.terms());
+                document.labels().forEach(label -> addTerms(terms, label, -LABEL_WEIGHT));
+                List<String> labels = change.apply(document.labels());
+                labels.forEach(label -> addTerms(terms, label, LABEL_WEIGHT));
+                terms.values().removeIf(weight -> weight <= 0);
+                removeLocked(taskId);
+                insertLocked(taskId, new Document(labels, terms));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * 所有查询词都必须命中，prefixLast 为 true 时最后一个词按前缀匹配
+     * 得分为各词加权词频乘以逆文档频率之和，同分时较新的任务在前
+     */
+    List<String> search(List<String> queryTerms, boolean prefixLast, int limit) {
+        lock.readLock().lock();
+        try {
+            Map<String, Double> scores = null;
+            for (int i = 0; i < queryTerms.size(); i++) {
+                String term = queryTerms.get(i);
+                Map<String, Double> termScores = prefixLast && i == queryTerms.size() - 1
+                        ? scorePrefix(term)
+                        : scoreExact(term, 1.0, new HashMap<>());
+                if (scores == null) {
+                    scores = termScores;
+                } else {
+                    scores.keySet().retainAll(termScores.keySet());
+                    scores.replaceAll((taskId, score) -> score + termScores.get(taskId));
+                }
+                if (scores.isEmpty()) {
+                    return List.of();
+                }
+            }
+            return scores == null ? List.of() : top(scores, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Map<String, Double> scorePrefix(String prefix) {
+        Map<String, Double> scores = new HashMap<>();
+        int expanded = 0;
+        for (String term : postings.subMap(prefix, true, prefix + Character.MAX_VALUE, false).keySet()) {
+            if (++expanded > MAX_PREFIX_EXPANSION) {
+                break;
+            }
+            scoreExact(term, term.equals(prefix) ? 1.0 : PREFIX_FACTOR, scores);
+        }
+        return scores;
+    }
+
+    private Map<String, Double> scoreExact(String term, double factor, Map<String, Double> scores) {
+        Map<String, Integer> posting = postings.get(term);
+        if (posting != null) {
+            double idf = Math.log(1 + (double) documents.size() / posting.size());
+            posting.forEach((taskId, weight) -> scores.merge(taskId, weight * idf * factor, Double::sum));
+        }
+        return scores;
+    }
+
+    private static List<String> top(Map<String, Double> scores, int limit) {
+        Comparator<Map.Entry<String, Double>> order = Map.Entry.<String, Double>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey());
+        PriorityQueue<Map.Entry<String, Double>> heap = new PriorityQueue<>(limit + 1, order);
+        for (Map.Entry<String, Double> entry : scores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > limit) {
+                heap.poll();
+            }
+        }
+        List<String> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            result.add(heap.poll().getKey());
+        }
+        return result.reversed();
+    }
+
+    private void insertLocked(String taskId, Document document) {
+        documents.put(taskId, document);
+        document.terms().forEach((term, weight) ->
+                postings.computeIfAbsent(term, key -> new HashMap<>()).put(taskId, weight));
+    }
+
+    private void removeLocked(String taskId) {
+        Document document = documents.remove(taskId);
+        if (document == null) {
+            return;
+        }
+        for (String term : document.terms().keySet()) {
+            Map<String, Integer> posting = postings.get(term);
+            if (posting != null) {
+                posting.remove(taskId);
+                if (posting.isEmpty()) {
+                    postings.remove(term);
+                }
+            }
+        }
+    }
+
+    private static void addTerms(Map<String, Integer> terms, String text, int weight) {
+        for (String term : TaskTokenizer.indexTerms(text)) {
+            terms.merge(term, weight, Integer::sum);
+        }
+    }
+
+    /**
+     * 去重并保持顺序，标签改名后可能与已有标签重复
+     */
+    static List<String> distinct(List<String> labels) {
+        Set<String> unique = new LinkedHashSet<>(labels);
+        return List.copyOf(unique);
+    }
+}
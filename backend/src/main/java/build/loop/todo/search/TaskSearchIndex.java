@@ -0,0 +1,161 @@
+package build.loop.todo.search;
+
+import build.loop.todo.model.entity.Task;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 任务全文索引，覆盖标题、描述和标签，按项目分片存放在内存中
+ * 启动时在 Web 服务开始接收请求之前从数据库全量重建，之后由服务层在事务提交后增量更新
+ * 索引只反映本实例的写入，多实例部署时其他实例的写入要到重启后才可见
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskSearchIndex implements SmartInitializingSingleton {
+    private static final int REBUILD_FETCH_SIZE = 1000;
+    private static final String REBUILD_QUERY =
+            "SELECT t.id, t.project_id, t.title, t.description, l.label " +
+            "FROM tasks t LEFT JOIN task_labels l ON l.task_id = t.id ORDER BY t.id";
+
+    private final DataSource dataSource;
+    private final PlatformTransactionManager transactionManager;
+    private final Map<String, ProjectIndex> projects = new ConcurrentHashMap<>();
+
+    /**
+     * 在当前事务内记录任务内容，提交后写入索引
+     */
+    public void index(String projectId, Task task) {
+        String taskId = task.getId();
+        String title = task.getTitle();
+        String description = task.getDescription();
+        List<String> labels = task.getLabels() == null ? List.of() : ProjectIndex.distinct(task.getLabels());
+        afterCommit(() -> project(projectId).put(taskId, title, description, labels));
+    }
+
+    public void remove(String projectId, Collection<String> taskIds) {
+        List<String> removed = List.copyOf(taskIds);
+        afterCommit(() -> project(projectId).remove(removed));
+    }
+
+    public void removeLabels(String projectId, Collection<String> labels) {
+        List<String> removed = List.copyOf(labels);
+        afterCommit(() -> project(projectId).relabel(removed, current -> current.stream()
+                .filter(label -> !removed.contains(label))
+                .toList()));
+    }
+
+    /**
+     * 标签改名与合并都是把 source 替换为 target，已有 target 的任务去重
+     */
+    public void renameLabel(String projectId, String source, String target) {
+        afterCommit(() -> project(projectId).relabel(List.of(source), current -> ProjectIndex.distinct(
+                current.stream().map(label -> label.equals(source) ? target : label).toList())));
+    }
+
+    public void removeProject(String projectId) {
+        afterCommit(() -> projects.remove(projectId));
+    }
+
+    /**
+     * 返回按相关度排序的任务 ID，查询以字母数字结尾时最后一个词按前缀匹配
+     */
+    public List<String> search(String projectId, String query, int limit) {
+        ProjectIndex index = projects.get(projectId);
+        List<String> terms = TaskTokenizer.queryTerms(query).stream().distinct().toList();
+        if (index == null || terms.isEmpty()) {
+            return List.of();
+        }
+        return index.search(terms, TaskTokenizer.endsWithWord(query), limit);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        long start = System.nanoTime();
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.setFetchSize(REBUILD_FETCH_SIZE);
+        // 只读事务内执行，PostgreSQL 驱动才会按 fetch size 分批读取而不是一次载入全部结果
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        transaction.setReadOnly(true);
+        int count = transaction.execute(status -> {
+            RebuildHandler handler = new RebuildHandler();
+            jdbcTemplate.query(REBUILD_QUERY, handler::processRow);
+            handler.flush();
+            return handler.count;
+        });
+        log.info("Task search index rebuilt: {} tasks in {} projects, {} ms",
+                count, projects.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private ProjectIndex project(String projectId) {
+        return projects.computeIfAbsent(projectId, key -> new ProjectIndex());
+    }
+
+    /**
+     * 回滚的写入不进入索引；不在事务中调用时立即生效
+     */
+    private void afterCommit(Runnable change) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            change.run();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                change.run();
+            }
+        });
+    }
+
+    /**
+     * 结果按任务 ID 排序，同一任务的多个标签行相邻，逐行合并后写入索引
+     */
+    private final class RebuildHandler {
+        private String taskId;
+        private String projectId;
+        private String title;
+        private String description;
+        private List<String> labels = new ArrayList<>();
+        private int count;
+
+        void processRow(ResultSet rs) throws SQLException {
+            String id = rs.getString("id");
+            if (!id.equals(taskId)) {
+                flush();
+                taskId = id;
+                projectId = rs.getString("project_id");
+                title = rs.getString("title");
+                description = rs.getString("description");
+                labels = new ArrayList<>();
+            }
+            String label = rs.getString("label");
+            if (label != null) {
+                labels.add(label);
+            }
+        }
+
+        void flush() {
+            if (taskId != null) {
+                project(projectId).put(taskId, title, description, ProjectIndex.distinct(labels));
+                count++;
+                taskId = null;
+            }
+        }
+    }
+}
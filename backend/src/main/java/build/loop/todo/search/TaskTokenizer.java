@@ -0,0 +1,95 @@
+package build.loop.todo.search;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.function.Consumer;
+
+/**
+ * 中英文混合分词
+ * 字母数字连续段按单词切分并转为小写；中日韩文字连续段切分为单字和相邻双字，不依赖词典
+ */
+final class TaskTokenizer {
+    private TaskTokenizer() {
+    }
+
+    /**
+     * 建索引用，保留重复词用于统计词频；中日韩文字同时输出单字和双字，单字查询也能命中
+     */
+    static List<String> indexTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        split(text, terms::add, run -> {
+            for (int i = 0; i < run.length(); i++) {
+                terms.add(run.substring(i, i + 1));
+                if (i + 1 < run.length()) {
+                    terms.add(run.substring(i, i + 2));
+                }
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * 查询用，中日韩文字只输出双字以提高精度，单个字时输出单字
+     */
+    static List<String> queryTerms(String text) {
+        List<String> terms = new ArrayList<>();
+        split(text, terms::add, run -> {
+            if (run.length() == 1) {
+                terms.add(run);
+            }
+            for (int i = 0; i + 1 < run.length(); i++) {
+                terms.add(run.substring(i, i + 2));
+            }
+        });
+        return terms;
+    }
+
+    /**
+     * 查询末尾是否为未输入完的单词，是则对最后一个词做前缀匹配
+     */
+    static boolean endsWithWord(String text) {
+        if (text.isEmpty()) {
+            return false;
+        }
+        int last = text.codePointBefore(text.length());
+        return Character.isLetterOrDigit(last) && !isCjk(last);
+    }
+
+    private static void split(String text, Consumer<String> word, Consumer<String> cjkRun) {
+        if (text == null || text.isEmpty()) {
+            return;
+        }
+        StringBuilder latin = new StringBuilder();
+        StringBuilder cjk = new StringBuilder();
+        text.codePoints().forEach(codePoint -> {
+            if (isCjk(codePoint)) {
+                flush(latin, word);
+                cjk.appendCodePoint(codePoint);
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                flush(cjk, cjkRun);
+                latin.appendCodePoint(codePoint);
+            } else {
+                flush(latin, word);
+                flush(cjk, cjkRun);
+            }
+        });
+        flush(latin, word);
+        flush(cjk, cjkRun);
+    }
+
+    private static void flush(StringBuilder buffer, Consumer<String> sink) {
+        if (!buffer.isEmpty()) {
+            sink.accept(buffer.toString().toLowerCase(Locale.ROOT));
+            buffer.setLength(0);
+        }
+    }
+
+    private static boolean isCjk(int codePoint) {
+        Character.UnicodeScript script = Character.UnicodeScript.of(codePoint);
+        return script == Character.UnicodeScript.HAN
+                || script == Character.UnicodeScript.HIRAGANA
+                || script == Character.UnicodeScript.KATAKANA
+                || script == Character.UnicodeScript.HANGUL;
+    }
+}
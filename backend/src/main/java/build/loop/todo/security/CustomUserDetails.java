@@ -23,6 +23,16 @@ public class CustomUserDetails implements UserDetails {
         this.password = user.getPassword();
     }
 
+    /**
+     * 由已验证的 JWT 声明构建，不包含密码
+     */
+    public CustomUserDetails(String id, String username, String email) {
+        this.id = id;
+        this.username = username;
+        this.email = email;
+        this.password = null;
+    }
+
     @Override
     public Collection<? extends GrantedAuthority> getAuthorities() {
         return Collections.singletonList(new SimpleGrantedAuthority("ROLE_USER"));
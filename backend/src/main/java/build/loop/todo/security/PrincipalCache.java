@@ -0,0 +1,59 @@
+package build.loop.todo.security;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.core.userdetails.UserCache;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * 以邮箱为键的用户主体缓存，限制容量和存活时间
+ * 仅用于仍需查询数据库的认证路径（如登录），用户更新或删除时由 UserServiceImpl 失效
+ */
+@Component
+public class PrincipalCache implements UserCache {
+    private final Cache<String, UserDetails> cache;
+
+    public PrincipalCache(
+            MeterRegistry meterRegistry,
+            @Value("${auth.principal-cache.max-size:10000}") long maxSize,
+            @Value("${auth.principal-cache.ttl:300}") long ttlSeconds
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.principal");
+    }
+
+    @Override
+    public UserDetails getUserFromCache(String email) {
+        return cache.getIfPresent(email);
+    }
+
+    @Override
+    public void putUserInCache(UserDetails user) {
+        if (user instanceof CustomUserDetails customUserDetails) {
+            cache.put(customUserDetails.getEmail(), customUserDetails);
+        }
+    }
+
+    @Override
+    public void removeUserFromCache(String email) {
+        cache.invalidate(email);
+    }
+
+    /**
+     * 按用户 ID 失效，用户的邮箱可能已被修改，因此按值匹配
+     */
+    public void evictUser(String userId) {
+        cache.asMap().values().removeIf(user ->
+                user instanceof CustomUserDetails customUserDetails && customUserDetails.getId().equals(userId));
+    }
+}
@@ -0,0 +1,87 @@
+package build.loop.todo.security;
+
+import build.loop.todo.model.entity.ProjectRole;
+import build.loop.todo.repository.ProjectMemberRepository;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executors;
+
+/**
+ * 以 (用户, 项目) 为键的成员角色缓存，非成员同样缓存为空值
+ * 成员变更和项目删除时由 ProjectServiceImpl 失效，存活时间限制了多实例部署下的过期窗口
+ * 采用异步加载：同步加载会在 ConcurrentHashMap 的桶锁（synchronized）内执行数据库查询，
+ * 虚拟线程在锁内等待 I/O 时会占住载体线程；异步加载在独立的虚拟线程中查询，请求线程只等待结果
+ */
+@Component
+public class ProjectAccessCache {
+    private final AsyncLoadingCache<MembershipKey, Optional<ProjectRole>> cache;
+
+    public ProjectAccessCache(
+            ProjectMemberRepository projectMemberRepository,
+            MeterRegistry meterRegistry,
+            @Value("${auth.membership-cache.max-size:100000}") long maxSize,
+            @Value("${auth.membership-cache.ttl:60}") long ttlSeconds
+    ) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .executor(Executors.newVirtualThreadPerTaskExecutor())
+                .buildAsync(key -> projectMemberRepository.findRole(key.projectId(), key.userId()));
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "auth.membership");
+    }
+
+    /**
+     * 返回用户在项目中的角色，非成员或项目不存在时返回空
+     */
+    public Optional<ProjectRole> getRole(String userId, String projectId) {
+        try {
+            return cache.get(new MembershipKey(userId, projectId)).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    public void evict(String userId, String projectId) {
+        MembershipKey key = new MembershipKey(userId, projectId);
+        afterCompletion(() -> cache.synchronous().invalidate(key));
+    }
+
+    /**
+     * 失效项目下所有成员的缓存，仅在删除项目时使用
+     */
+    public void evictProject(String projectId) {
+        afterCompletion(() -> cache.synchronous().asMap().keySet().removeIf(key -> key.projectId().equals(projectId)));
+    }
+
+    /**
+     * 立即失效一次，并在事务结束后再失效一次，避免并发请求在提交前把旧角色重新载入缓存
+     */
+    private void afterCompletion(Runnable eviction) {
+        eviction.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    eviction.run();
+                }
+            });
+        }
+    }
+
+    private record MembershipKey(String userId, String projectId) {
+    }
+}
@@ -0,0 +1,64 @@
+package build.loop.todo.security;
+
+import build.loop.todo.model.entity.ProjectRole;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.lang.NonNull;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * 项目路由的成员权限校验，作用于 /api/v1/projects/{projectId} 及其下所有路由
+ * 角色来自 ProjectAccessCache，命中缓存时不访问数据库
+ */
+@Component
+@RequiredArgsConstructor
+public class ProjectAccessInterceptor implements HandlerInterceptor {
+    private static final String PROJECT_ID = "projectId";
+
+    private final ProjectAccessCache projectAccessCache;
+
+    @Override
+    public boolean preHandle(
+            @NonNull HttpServletRequest request,
+            @NonNull HttpServletResponse response,
+            @NonNull Object handler
+    ) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, String> pathVariables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        String projectId = pathVariables == null ? null : pathVariables.get(PROJECT_ID);
+        if (projectId == null) {
+            return true;
+        }
+
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication == null || !(authentication.getPrincipal() instanceof CustomUserDetails user)) {
+            throw new AccessDeniedException("Authentication required");
+        }
+
+        ProjectRole role = projectAccessCache.getRole(user.getId(), projectId)
+                .orElseThrow(() -> new AccessDeniedException("Not a member of project: " + projectId));
+
+        RequireProjectOwner ownerOnly = handlerMethod.getMethodAnnotation(RequireProjectOwner.class);
+        if (ownerOnly != null && role != ProjectRole.OWNER && !isSelf(ownerOnly, pathVariables, user)) {
+            throw new AccessDeniedException("Project owner role required: " + projectId);
+        }
+        return true;
+    }
+
+    private boolean isSelf(RequireProjectOwner ownerOnly, Map<String, String> pathVariables, CustomUserDetails user) {
+        return !ownerOnly.allowSelf().isEmpty() && user.getId().equals(pathVariables.get(ownerOnly.allowSelf()));
+    }
+}
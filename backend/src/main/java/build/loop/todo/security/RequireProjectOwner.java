@@ -0,0 +1,18 @@
+package build.loop.todo.security;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * 标记只有项目所有者才能调用的项目路由，未标记的项目路由只要求是项目成员
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RequireProjectOwner {
+    /**
+     * 指定路径变量与当前用户 ID 相同时放行普通成员，例如成员退出项目
+     */
+    String allowSelf() default "";
+}
@@ -3,24 +3,71 @@ package build.loop.todo.service;
 import build.loop.todo.config.JwtConfig;
 import build.loop.todo.model.entity.User;
 import build.loop.todo.security.CustomUserDetails;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
-import lombok.RequiredArgsConstructor;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.Instant;
+import java.util.Base64;
 import java.util.Date;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class JwtService {
     private final JwtConfig jwtConfig;
+    // JwtParser 不可变且线程安全，所有请求共用同一个实例
+    private final JwtParser parser;
+    // 已验证令牌的声明缓存，键为令牌的 SHA-256 摘要，条目在令牌过期时失效
+    private final Cache<String, Claims> verifiedTokens;
+    // 令牌校验耗时，按是否命中缓存和校验结果区分
+    private final Timer cachedVerification;
+    private final Timer signatureVerification;
+    private final Timer failedVerification;
+
+    public JwtService(
+            JwtConfig jwtConfig,
+            MeterRegistry meterRegistry,
+            @Value("${jwt.verified-cache.max-size:10000}") long verifiedCacheMaxSize
+    ) {
+        this.jwtConfig = jwtConfig;
+        this.parser = Jwts.parser()
+                .verifyWith(jwtConfig.key())
+                .build();
+        this.verifiedTokens = Caffeine.newBuilder()
+                .maximumSize(verifiedCacheMaxSize)
+                .expireAfter(new ClaimsExpiry())
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, verifiedTokens, "jwt.verified");
+        this.cachedVerification = verificationTimer(meterRegistry, "hit", "success");
+        this.signatureVerification = verificationTimer(meterRegistry, "miss", "success");
+        this.failedVerification = verificationTimer(meterRegistry, "miss", "failure");
+    }
+
+    private static Timer verificationTimer(MeterRegistry meterRegistry, String cache, String outcome) {
+        return Timer.builder("jwt.verification")
+                .tag("cache", cache)
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
 
     public String generateToken(User user) {
         Map<String, Object> claims = new HashMap<>();
@@ -60,34 +107,73 @@ public class JwtService {
     }
 
     public <T> T extractClaim(String token, Function<Claims, T> claimsResolver) {
-        final Claims claims = extractAllClaims(token);
+        final Claims claims = verify(token);
         return claimsResolver.apply(claims);
     }
 
-    private Claims extractAllClaims(String token) {
+    /**
+     * 验证令牌并返回声明，每个令牌只做一次签名校验和解析
+     * 命中缓存时跳过加解密，签名无效或已过期时抛出 JwtException
+     */
+    public Claims verify(String token) {
+        long start = System.nanoTime();
+        String digest = digest(token);
+        Claims cached = verifiedTokens.getIfPresent(digest);
+        if (cached != null && cached.getExpiration().after(new Date())) {
+            cachedVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return cached;
+        }
+        Claims claims;
+        try {
+            claims = parseClaims(token);
+        } catch (RuntimeException e) {
+            failedVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            throw e;
+        }
+        if (claims.getExpiration() != null) {
+            verifiedTokens.put(digest, claims);
+        }
+        signatureVerification.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        return claims;
+    }
+
+    public CacheStats getVerifiedCacheStats() {
+        return verifiedTokens.stats();
+    }
+
+    private Claims parseClaims(String token) {
         try {
-            return Jwts.parser()
-                    .verifyWith(jwtConfig.key())
-                    .build()
-                    .parseSignedClaims(token)
-                    .getPayload();
+            return parser.parseSignedClaims(token).getPayload();
         } catch (Exception e) {
             log.error("Failed to parse JWT token", e);
             throw e;
         }
     }
 
-    private Boolean isTokenExpired(String token) {
+    private static String digest(String token) {
         try {
-            return extractExpiration(token).before(new Date());
-        } catch (Exception e) {
-            log.error("Failed to check token expiration", e);
-            return true;
+            MessageDigest messageDigest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = messageDigest.digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
         }
     }
 
+    /**
+     * 解析并验证令牌，直接由声明构建用户主体，无需查询数据库
+     */
+    public CustomUserDetails extractUserDetails(String token) {
+        Claims claims = verify(token);
+        return new CustomUserDetails(
+                claims.get("id", String.class),
+                claims.get("username", String.class),
+                claims.getSubject()
+        );
+    }
+
     public User extractUser(String token) {
-        Claims claims = extractAllClaims(token);
+        Claims claims = verify(token);
         User user = new User();
         user.setId((String) claims.get("id"));
         user.setEmail(claims.getSubject());
@@ -99,7 +185,31 @@ public class JwtService {
         if (!(userDetails instanceof CustomUserDetails customUserDetails)) {
             return false;
         }
-        final String tokenEmail = extractEmail(token);
-        return (tokenEmail.equals(customUserDetails.getEmail()) && !isTokenExpired(token));
+        // 过期的令牌在解析阶段即被拒绝，这里只需比对主体
+        try {
+            final Claims claims = verify(token);
+            return claims.getSubject().equals(customUserDetails.getEmail());
+        } catch (Exception e) {
+            log.error("Failed to validate token", e);
+            return false;
+        }
+    }
+
+    private static class ClaimsExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String key, Claims claims, long currentTime) {
+            long remainingMillis = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMillis, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String key, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(key, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String key, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
+        }
     }
-} 
\ No newline at end of file
+}
@@ -2,26 +2,34 @@ package build.loop.todo.service;
 
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.ProjectMember;
-import build.loop.todo.model.entity.User;
 import build.loop.todo.model.dto.BatchDeleteResponse;
+import build.loop.todo.model.dto.LabelUpdateResponse;
+import build.loop.todo.model.dto.ProjectListResponse;
+import build.loop.todo.model.dto.ProjectMemberListResponse;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 public interface ProjectService {
-    Project create(Project project, User creator);
+    Project create(Project project, String creatorId);
     
     Optional<Project> findById(String id);
     
-    List<Project> findAllByUser(User user);
+    ProjectListResponse findAllByUser(String userId, String cursor, Integer limit);
     
+    /**
+     * 项目当前的版本号，任务、标签或成员的任何变更都会使其递增
+     */
+    long getRevision(String projectId);
+
     Project update(Project project);
     
-    void deleteById(String id);
+    void deleteById(String id, String userId);
     
-    BatchDeleteResponse deleteByIds(List<String> ids);
+    BatchDeleteResponse deleteByIds(List<String> ids, String userId);
     
-    List<ProjectMember> getProjectMembers(String projectId);
+    ProjectMemberListResponse getProjectMembers(String projectId, String cursor, Integer limit);
     
     ProjectMember addProjectMember(String projectId, String userId, String role);
     
@@ -30,6 +38,17 @@ public interface ProjectService {
     List<String> getProjectLabels(String projectId);
     
     void addProjectLabel(String projectId, String label);
+
+    /**
+     * 把任务引入的新标签加入项目，已存在的标签被忽略，返回新增的标签数
+     * 全部标签在一次批量执行中插入，只占一次数据库往返
+     * 不更新版本号也不推送事件，由调用方的任务写入负责
+     */
+    int addProjectLabels(String projectId, Collection<String> labels);
+    
+    LabelUpdateResponse removeProjectLabels(String projectId, List<String> labels);
+    
+    LabelUpdateResponse renameProjectLabel(String projectId, String label, String newLabel);
     
-    void removeProjectLabel(String projectId, String label);
+    LabelUpdateResponse mergeProjectLabel(String projectId, String source, String target);
 } 
\ No newline at end of file
@@ -0,0 +1,48 @@
+package build.loop.todo.service;
+
+import build.loop.todo.repository.ProjectRepository;
+import build.loop.todo.repository.TaskCounterRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * 任务计数的校准任务
+ * 启动时为缺少计数行的旧项目补齐计数，之后定期从任务表重新统计，修正可能出现的偏差
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class TaskCounterReconciler {
+    private final TaskService taskService;
+    private final ProjectRepository projectRepository;
+    private final TaskCounterRepository taskCounterRepository;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void seedMissingCounters() {
+        reconcile(taskCounterRepository.findProjectIdsWithoutCounters());
+    }
+
+    @Scheduled(cron = "${stats.reconcile-cron:0 30 3 * * *}")
+    public void reconcileAll() {
+        reconcile(projectRepository.findAllIds());
+    }
+
+    /**
+     * 每个项目单独一个事务，单个项目失败不影响其他项目
+     */
+    private void reconcile(List<String> projectIds) {
+        for (String projectId : projectIds) {
+            try {
+                taskService.reconcileCounters(projectId);
+            } catch (RuntimeException e) {
+                log.warn("Failed to reconcile task counters of project {}", projectId, e);
+            }
+        }
+    }
+}
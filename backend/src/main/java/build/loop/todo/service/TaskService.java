@@ -1,30 +1,68 @@
 package build.loop.todo.service;
 
 import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import build.loop.todo.model.dto.TaskBatchResponse;
+import build.loop.todo.model.dto.TaskFilter;
 import build.loop.todo.model.dto.TaskListResponse;
+import build.loop.todo.model.dto.TaskPatch;
+import build.loop.todo.model.dto.TaskStatsResponse;
 import build.loop.todo.model.dto.BatchDeleteResponse;
 
+import java.io.IOException;
+import java.io.OutputStream;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 public interface TaskService {
     Task create(String projectId, Task task);
     
-    TaskListResponse batchCreate(String projectId, List<Task> tasks);
+    TaskBatchResponse batchCreate(String projectId, List<Task> tasks);
     
     Optional<Task> findById(String id);
     
-    TaskListResponse findAllByProject(String projectId);
+    TaskListResponse findAllByProject(String projectId, String cursor, Integer limit);
+
+    /**
+     * 按过滤条件和排序方式列出任务，游标只能用于相同条件的下一次请求
+     */
+    TaskListResponse findAllByProject(String projectId, TaskFilter filter, String cursor, Integer limit);
+
+    /**
+     * 在项目内按标题、描述和标签全文搜索，结果按相关度排序
+     */
+    TaskListResponse search(String projectId, String query, Integer limit);
+
+    /**
+     * 按状态和优先级统计的任务数量，直接读取计数表
+     */
+    TaskStatsResponse getStats(String projectId);
+
+    /**
+     * 从任务表重新统计并修正项目的计数
+     */
+    void reconcileCounters(String projectId);
+
+    void exportByProject(String projectId, OutputStream outputStream) throws IOException;
     
     Task update(String projectId, String taskId, Task task);
+
+    /**
+     * 只更新补丁中给出的字段，一条 UPDATE 同时校验项目归属并返回更新后的行
+     * 任务不存在或不属于该项目时抛出 EntityNotFoundException
+     */
+    Task patch(String projectId, String taskId, TaskPatch patch);
     
     void deleteById(String projectId, String taskId);
     
     BatchDeleteResponse deleteByIds(String projectId, List<String> taskIds);
     
-    void updateTaskStatus(String projectId, String taskId, String status);
-    
-    void updateTaskPriority(String projectId, String taskId, String priority);
+    /**
+     * 在一个事务中写入合并后的状态和优先级修改，未给出的字段保持数据库中的当前值，已删除的任务被忽略
+     */
+    void applyCoalescedChanges(String projectId, Map<String, TaskStatus> statuses, Map<String, TaskPriority> priorities);
     
     void addTaskLabel(String projectId, String taskId, String label);
     
@@ -0,0 +1,299 @@
+package build.loop.todo.service;
+
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import jakarta.persistence.EntityNotFoundException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * 任务状态和优先级修改的合并写入，由 tasks.write-coalescing.enabled 开启
+ * <p>
+ * 看板拖拽会连续发出多次 PATCH。开启后修改先记在内存中，同一任务在窗口内的多次修改只保留最后一次，
+ * 窗口结束时每个项目在一个事务中批量写入。读写同一项目的其他请求在处理前先写入该项目的积压修改
+ * （见 PendingWriteInterceptor），发出修改的客户端随后读取一定能看到自己的修改。
+ * 应用关闭时在连接池关闭前写入全部积压修改；进程被强制终止时最多丢失一个窗口内的修改。
+ * 写入连续失败 tasks.write-coalescing.max-attempts 次后丢弃该项目的积压修改并记录错误日志和 tasks.write.dropped 指标，
+ * 持续失败的写入不会无限重试，也不会让该项目的读请求跟着失败。
+ * 积压修改只保存在本实例内存中，多实例部署时不要开启。
+ */
+@Component
+@Slf4j
+public class TaskWriteCoalescer {
+    private final TaskService taskService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final boolean enabled;
+    private final long windowMillis;
+    private final int maxAttempts;
+    private final Map<String, ProjectQueue> queues = new ConcurrentHashMap<>();
+    // 未开启时为 null，不创建线程
+    private final ScheduledExecutorService flusher;
+    private final Counter coalesced;
+    private final Counter written;
+    private final Counter dropped;
+    private volatile boolean closed;
+
+    public TaskWriteCoalescer(
+            TaskService taskService,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry,
+            @Value("${tasks.write-coalescing.enabled:false}") boolean enabled,
+            @Value("${tasks.write-coalescing.window:200}") long windowMillis,
+            @Value("${tasks.write-coalescing.max-attempts:5}") int maxAttempts
+    ) {
+        this.taskService = taskService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.enabled = enabled;
+        this.windowMillis = windowMillis;
+        this.maxAttempts = maxAttempts;
+        this.flusher = enabled
+                ? Executors.newSingleThreadScheduledExecutor(
+                        Thread.ofPlatform().name("task-write-coalescer").daemon().factory())
+                : null;
+        this.coalesced = Counter.builder("tasks.write.coalesced")
+                .description("Status and priority changes merged into an already pending write")
+                .register(meterRegistry);
+        this.written = Counter.builder("tasks.write.flushed")
+                .description("Tasks written by coalesced flushes")
+                .register(meterRegistry);
+        this.dropped = Counter.builder("tasks.write.dropped")
+                .description("Pending task writes dropped after repeated flush failures")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 记录状态修改并返回修改后的任务，任务不存在或不属于该项目时立即报错
+     */
+    public Task updateStatus(String projectId, String taskId, String status) {
+        TaskStatus value = TaskStatus.fromValue(status);
+        return enqueue(projectId, taskId, write -> write.setStatus(value));
+    }
+
+    /**
+     * 记录优先级修改并返回修改后的任务，任务不存在或不属于该项目时立即报错
+     */
+    public Task updatePriority(String projectId, String taskId, String priority) {
+        TaskPriority value = TaskPriority.fromValue(priority);
+        return enqueue(projectId, taskId, write -> write.setPriority(value));
+    }
+
+    /**
+     * 同步写入项目的积压修改，写入失败时只记录日志，调用方基于已提交的数据继续处理
+     * 失败的修改保留在队列中由定时写入重试，失败次数达到上限后丢弃
+     */
+    public void flush(String projectId) {
+        ProjectQueue queue = queues.get(projectId);
+        if (queue == null) {
+            return;
+        }
+        queue.lock.lock();
+        try {
+            tryWrite(projectId, queue);
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // Web 服务器已在此前停止接收请求，此后的修改直接写入
+        closed = true;
+        if (flusher != null) {
+            flusher.shutdownNow();
+        }
+        queues.keySet().forEach(this::flush);
+    }
+
+    private Task enqueue(String projectId, String taskId, Consumer<PendingWrite> change) {
+        ProjectQueue queue = lockQueue(projectId);
+        try {
+            PendingWrite write = queue.writes.get(taskId);
+            if (write == null) {
+                write = new PendingWrite(load(projectId, taskId));
+                queue.writes.put(taskId, write);
+            } else {
+                coalesced.increment();
+            }
+            change.accept(write);
+            Task result = copyOf(write.snapshot);
+            if (closed) {
+                tryWrite(projectId, queue);
+            } else if (!queue.scheduled) {
+                schedule(projectId, queue);
+            }
+            return result;
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    /**
+     * 取得并锁住项目的队列，队列在等待锁期间被移除时换用新建的队列
+     */
+    private ProjectQueue lockQueue(String projectId) {
+        while (true) {
+            ProjectQueue queue = queues.computeIfAbsent(projectId, id -> new ProjectQueue());
+            // 写入也持有同一把锁，新建的快照读取的一定是已提交的最新值
+            queue.lock.lock();
+            if (!queue.retired) {
+                return queue;
+            }
+            queue.lock.unlock();
+        }
+    }
+
+    private void schedule(String projectId, ProjectQueue queue) {
+        queue.scheduled = true;
+        flusher.schedule(() -> flushScheduled(projectId, queue), windowMillis, TimeUnit.MILLISECONDS);
+    }
+
+    private void flushScheduled(String projectId, ProjectQueue queue) {
+        queue.lock.lock();
+        try {
+            queue.scheduled = false;
+            // 失败且未达到上限时保留积压修改，下一个窗口重试
+            if (!tryWrite(projectId, queue) && !closed) {
+                schedule(projectId, queue);
+            }
+        } finally {
+            queue.lock.unlock();
+        }
+    }
+
+    /**
+     * 调用方持有项目的锁。写入失败时计数，达到上限后丢弃积压修改；队列清空后从 queues 中移除
+     * 返回队列是否已处理完毕，false 表示修改仍在等待重试
+     */
+    private boolean tryWrite(String projectId, ProjectQueue queue) {
+        try {
+            write(projectId, queue);
+            queue.failures = 0;
+        } catch (RuntimeException e) {
+            queue.failures++;
+            if (queue.failures < maxAttempts) {
+                log.error("Failed to flush {} pending task writes of project {} (attempt {} of {})",
+                        queue.writes.size(), projectId, queue.failures, maxAttempts, e);
+                return false;
+            }
+            log.error("Dropping {} pending task writes of project {} after {} failed attempts: {}",
+                    queue.writes.size(), projectId, queue.failures, queue.writes.keySet(), e);
+            dropped.increment(queue.writes.size());
+            queue.writes.clear();
+            queue.failures = 0;
+        }
+        if (!queue.scheduled) {
+            queue.retired = true;
+            queues.remove(projectId, queue);
+        }
+        return true;
+    }
+
+    /**
+     * 调用方持有项目的锁，写入成功后才清空队列
+     */
+    private void write(String projectId, ProjectQueue queue) {
+        if (queue.writes.isEmpty()) {
+            return;
+        }
+        Map<String, TaskStatus> statuses = new HashMap<>();
+        Map<String, TaskPriority> priorities = new HashMap<>();
+        queue.writes.forEach((taskId, write) -> {
+            if (write.status != null) {
+                statuses.put(taskId, write.status);
+            }
+            if (write.priority != null) {
+                priorities.put(taskId, write.priority);
+            }
+        });
+        taskService.applyCoalescedChanges(projectId, statuses, priorities);
+        written.increment(queue.writes.size());
+        queue.writes.clear();
+    }
+
+    private Task load(String projectId, String taskId) {
+        // 在只读事务中复制，标签集合在事务外不可加载
+        return readOnlyTransaction.execute(status -> {
+            Task task = taskService.findById(taskId)
+                    .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
+            // 验证任务属于指定的项目
+            if (!task.getProject().getId().equals(projectId)) {
+                throw new IllegalArgumentException("Task does not belong to the specified project");
+            }
+            return copyOf(task);
+        });
+    }
+
+    private static Task copyOf(Task task) {
+        Task copy = new Task();
+        copy.setId(task.getId());
+        copy.setCreatedAt(task.getCreatedAt());
+        copy.setUpdatedAt(task.getUpdatedAt());
+        copy.setTitle(task.getTitle());
+        copy.setDescription(task.getDescription());
+        copy.setStatus(task.getStatus());
+        copy.setPriority(task.getPriority());
+        copy.setLabels(new ArrayList<>(task.getLabels()));
+        copy.setProject(task.getProject());
+        return copy;
+    }
+
+    private static final class ProjectQueue {
+        // 保护队列并串行化同一项目的写入，虚拟线程等待时不会占住载体线程
+        private final ReentrantLock lock = new ReentrantLock();
+        private final Map<String, PendingWrite> writes = new LinkedHashMap<>();
+        private boolean scheduled;
+        // 连续写入失败的次数，成功或丢弃后清零
+        private int failures;
+        // 已从 queues 中移除，持有旧引用的线程需要重新取得队列
+        private boolean retired;
+    }
+
+    /**
+     * 一个任务的积压修改，只记录被修改过的字段，写入时其余字段取数据库中的当前值
+     */
+    private static final class PendingWrite {
+        private final Task snapshot;
+        private TaskStatus status;
+        private TaskPriority priority;
+
+        private PendingWrite(Task snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        private void setStatus(TaskStatus status) {
+            this.status = status;
+            snapshot.setStatus(status);
+            snapshot.setUpdatedAt(LocalDateTime.now());
+        }
+
+        private void setPriority(TaskPriority priority) {
+            this.priority = priority;
+            snapshot.setPriority(priority);
+            snapshot.setUpdatedAt(LocalDateTime.now());
+        }
+    }
+}
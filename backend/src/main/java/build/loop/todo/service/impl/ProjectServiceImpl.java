@@ -1,41 +1,73 @@
 package build.loop.todo.service.impl;
 
+import build.loop.todo.event.ProjectEventPublisher;
+import build.loop.todo.event.ProjectEventType;
 import build.loop.todo.model.entity.*;
 import build.loop.todo.model.dto.BatchDeleteResponse;
+import build.loop.todo.model.dto.LabelUpdateResponse;
+import build.loop.todo.model.dto.ProjectListResponse;
+import build.loop.todo.model.dto.ProjectMemberListResponse;
 import build.loop.todo.repository.ProjectMemberRepository;
 import build.loop.todo.repository.ProjectRepository;
+import build.loop.todo.repository.ProjectRevisionRepository;
+import build.loop.todo.search.TaskSearchIndex;
 import build.loop.todo.repository.TaskRepository;
 import build.loop.todo.repository.UserRepository;
+import build.loop.todo.security.ProjectAccessCache;
 import build.loop.todo.service.ProjectService;
+import build.loop.todo.util.Ids;
+import build.loop.todo.util.PageCursor;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Session;
+import org.hibernate.SessionFactory;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.Arrays;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
-import java.util.stream.Collectors;
 import java.util.ArrayList;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
 public class ProjectServiceImpl implements ProjectService {
+    private static final String LABELS_ROLE = Project.class.getName() + ".labels";
+
     private final ProjectRepository projectRepository;
+    private final ProjectRevisionRepository projectRevisionRepository;
+    private final ProjectEventPublisher projectEventPublisher;
+    private final TaskSearchIndex taskSearchIndex;
     private final ProjectMemberRepository projectMemberRepository;
     private final UserRepository userRepository;
     private final TaskRepository taskRepository;
+    private final ProjectAccessCache projectAccessCache;
+    private final EntityManager entityManager;
 
     @Override
-    public Project create(Project project, User creator) {
+    public Project create(Project project, String creatorId) {
         Project savedProject = projectRepository.save(project);
         
         // 创建项目时自动将创建者添加为所有者
         ProjectMember member = new ProjectMember();
         member.setProject(savedProject);
-        member.setUser(creator);
+        // 创建者只作为外键引用，不需要查询用户
+        member.setUser(userRepository.getReferenceById(creatorId));
         member.setRole(ProjectRole.OWNER);
         projectMemberRepository.save(member);
+        projectRevisionRepository.save(new ProjectRevision(savedProject.getId(), 0));
+        // 预置全部计数行，之后的写入只做原地加减；persist 不会像 save 那样先查询主键是否存在
+        TaskCounter.emptyCounters(savedProject.getId()).forEach(entityManager::persist);
+        projectAccessCache.evict(creatorId, savedProject.getId());
         
         return savedProject;
     }
@@ -48,10 +80,31 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     @Transactional(readOnly = true)
-    public List<Project> findAllByUser(User user) {
-        return projectMemberRepository.findByUser(user).stream()
-            .map(ProjectMember::getProject)
-            .collect(Collectors.toList());
+    public ProjectListResponse findAllByUser(String userId, String cursor, Integer limit) {
+        // 用户只作为查询条件，使用引用避免额外的 SELECT
+        User user = userRepository.getReferenceById(userId);
+        // 未指定分页参数时保持一次性返回全部项目的行为
+        if (cursor == null && limit == null) {
+            return ProjectListResponse.of(projectRepository.findAllByUser(user));
+        }
+
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<Project> projects;
+        if (cursor == null) {
+            projects = projectRepository.findPageByUser(user, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            projects = projectRepository.findPageByUserAfter(user, after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        }
+        projects = new ArrayList<>(projects);
+        String nextCursor = PageCursor.trimToPage(projects, pageSize);
+        return ProjectListResponse.of(projects, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public long getRevision(String projectId) {
+        return projectRevisionRepository.findRevision(projectId).orElse(0L);
     }
 
     @Override
@@ -67,48 +120,68 @@ public class ProjectServiceImpl implements ProjectService {
     }
 
     @Override
-    public void deleteById(String id) {
-        // 删除项目时级联删除所有相关数据
-        Project project = projectRepository.findById(id)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + id));
-            
-        // 删除所有任务
-        taskRepository.deleteByProject(project);
-        
-        // 删除所有成员关系
-        projectMemberRepository.deleteByProject(project);
-        
-        // 删除项目
-        projectRepository.delete(project);
+    public void deleteById(String id, String userId) {
+        // 任务、成员和标签由数据库级联删除，所有者校验与删除在同一条语句中完成
+        if (projectRepository.deleteOwnedByIdIn(List.of(id), userId) == 0) {
+            throw new EntityNotFoundException("Project not found or not owned by user: " + id);
+        }
+        projectAccessCache.evictProject(id);
+        projectEventPublisher.projectChanged(id, ProjectEventType.PROJECT_DELETED);
+        taskSearchIndex.removeProject(id);
     }
 
     @Override
-    public BatchDeleteResponse deleteByIds(List<String> ids) {
-        int count = 0;
-        for (String id : ids) {
-            try {
-                deleteById(id);
-                count++;
-            } catch (EntityNotFoundException e) {
-                // 忽略不存在的项目
-            }
+    public BatchDeleteResponse deleteByIds(List<String> ids, String userId) {
+        if (ids == null || ids.isEmpty()) {
+            return BatchDeleteResponse.of(0);
+        }
+        // 不存在、不属于该用户或格式不对的项目 ID 会被忽略
+        List<String> validIds = Ids.validOnly(ids);
+        if (validIds.isEmpty()) {
+            return BatchDeleteResponse.of(0);
+        }
+        // 先锁住确实属于该用户的项目，缓存、事件和搜索索引只处理这些项目
+        List<String> owned = projectRepository.lockOwnedIdsIn(validIds, userId);
+        if (owned.isEmpty()) {
+            return BatchDeleteResponse.of(0);
         }
-        return BatchDeleteResponse.of(count);
+        int deleted = projectRepository.deleteOwnedByIdIn(owned, userId);
+        owned.forEach(id -> {
+            projectAccessCache.evictProject(id);
+            projectEventPublisher.projectChanged(id, ProjectEventType.PROJECT_DELETED);
+            taskSearchIndex.removeProject(id);
+        });
+        return BatchDeleteResponse.of(deleted);
     }
 
     @Override
     @Transactional(readOnly = true)
-    public List<ProjectMember> getProjectMembers(String projectId) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-        return projectMemberRepository.findByProject(project);
+    public ProjectMemberListResponse getProjectMembers(String projectId, String cursor, Integer limit) {
+        // 项目只作为查询条件，使用引用避免额外的 SELECT
+        Project project = projectRepository.getReferenceById(projectId);
+
+        // 未指定分页参数时保持一次性返回全部成员的行为
+        if (cursor == null && limit == null) {
+            return ProjectMemberListResponse.of(projectMemberRepository.findByProject(project));
+        }
+
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<ProjectMember> members;
+        if (cursor == null) {
+            members = projectMemberRepository.findByProjectOrderByCreatedAtAscIdAsc(project, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            members = projectMemberRepository.findPageAfter(project, after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        }
+        members = new ArrayList<>(members);
+        String nextCursor = PageCursor.trimToPage(members, pageSize);
+        return ProjectMemberListResponse.of(members, nextCursor);
     }
 
     @Override
     public ProjectMember addProjectMember(String projectId, String userId, String role) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-        User user = userRepository.findById(userId)
+        Project project = projectRepository.getReferenceById(projectId);
+        User user = Optional.ofNullable(userId).filter(Ids::isValid).flatMap(userRepository::findById)
             .orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
             
         // 检查用户是否已经是项目成员
@@ -120,30 +193,33 @@ public class ProjectServiceImpl implements ProjectService {
         member.setProject(project);
         member.setUser(user);
         member.setRole(ProjectRole.fromValue(role));
-        return projectMemberRepository.save(member);
+        ProjectMember savedMember = projectMemberRepository.save(member);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_MEMBERS_CHANGED);
+        projectAccessCache.evict(userId, projectId);
+        return savedMember;
     }
 
     @Override
     public void removeProjectMember(String projectId, String userId) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-        User user = userRepository.findById(userId)
-            .orElseThrow(() -> new EntityNotFoundException("User not found: " + userId));
-            
+        Project project = projectRepository.getReferenceById(projectId);
+        User user = userRepository.getReferenceById(userId);
+
+        // 项目或用户不存在时同样查不到成员记录
         ProjectMember member = projectMemberRepository.findByProjectAndUser(project, user)
             .orElseThrow(() -> new EntityNotFoundException("Project member not found"));
             
         // 检查是否是最后一个所有者
         if (member.getRole() == ProjectRole.OWNER) {
-            long ownerCount = projectMemberRepository.findByProject(project).stream()
-                .filter(m -> m.getRole() == ProjectRole.OWNER)
-                .count();
-            if (ownerCount <= 1) {
+            if (projectMemberRepository.countByProjectAndRole(project, ProjectRole.OWNER) <= 1) {
                 throw new IllegalStateException("Cannot remove the last owner of the project");
             }
         }
         
         projectMemberRepository.delete(member);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_MEMBERS_CHANGED);
+        projectAccessCache.evict(userId, projectId);
     }
 
     @Override
@@ -156,29 +232,120 @@ public class ProjectServiceImpl implements ProjectService {
 
     @Override
     public void addProjectLabel(String projectId, String label) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-        if (!project.getLabels().contains(label)) {
-            project.getLabels().add(label);
-            projectRepository.save(project);
+        if (!projectRepository.existsById(projectId)) {
+            throw new EntityNotFoundException("Project not found: " + projectId);
+        }
+        // 只插入一行，不通过实体集合整体删除再重写标签表，并发编辑标签时不会互相死锁
+        if (projectRepository.insertLabel(projectId, label) > 0) {
+            evictCachedLabels(projectId);
+            projectRevisionRepository.bump(projectId);
+            projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_LABELS_CHANGED);
         }
     }
 
     @Override
-    public void removeProjectLabel(String projectId, String label) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-        
-        // 从项目中移除标签
-        project.getLabels().remove(label);
-        projectRepository.save(project);
-        
-        // 从所有任务中移除该标签
-        List<Task> tasks = taskRepository.findByProject(project);
-        for (Task task : tasks) {
-            if (task.getLabels().remove(label)) {
-                taskRepository.save(task);
+    public int addProjectLabels(String projectId, Collection<String> labels) {
+        if (labels.isEmpty()) {
+            return 0;
+        }
+        // 与 insertLabel 一样先刷新、后清空持久化上下文，所有标签在一次批量执行中写入
+        entityManager.flush();
+        int[] counts = entityManager.unwrap(Session.class)
+            .doReturningWork(connection -> insertLabels(connection, projectId, labels));
+        entityManager.clear();
+        // 驱动改写批量插入时每行报告 SUCCESS_NO_INFO，此时无法确认是否有新增，按有新增处理
+        if (Arrays.stream(counts).anyMatch(count -> count != 0)) {
+            evictCachedLabels(projectId);
+        }
+        return Arrays.stream(counts).filter(count -> count > 0).sum();
+    }
+
+    private static int[] insertLabels(Connection connection, String projectId, Collection<String> labels)
+            throws SQLException {
+        try (PreparedStatement insert = connection.prepareStatement(
+                "INSERT INTO project_labels (project_id, label) VALUES (?, ?) ON CONFLICT DO NOTHING")) {
+            for (String label : labels) {
+                insert.setString(1, projectId);
+                insert.setString(2, label);
+                insert.addBatch();
             }
+            return insert.executeBatch();
+        }
+    }
+
+    @Override
+    public LabelUpdateResponse removeProjectLabels(String projectId, List<String> labels) {
+        if (labels == null || labels.isEmpty()) {
+            return LabelUpdateResponse.of(0, 0);
+        }
+        // 直接在标签表上批量删除，不再逐个加载和保存任务
+        int taskLabelCount = taskRepository.deleteLabels(projectId, labels);
+        int projectLabelCount = projectRepository.deleteLabels(projectId, labels);
+        evictCachedLabels(projectId);
+        taskSearchIndex.removeLabels(projectId, labels);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_LABELS_CHANGED);
+        return LabelUpdateResponse.of(projectLabelCount, taskLabelCount);
+    }
+
+    @Override
+    public LabelUpdateResponse renameProjectLabel(String projectId, String label, String newLabel) {
+        validateLabelChange(projectId, label, newLabel);
+        if (projectRepository.hasLabel(projectId, newLabel)) {
+            throw new IllegalStateException("Label already exists: " + newLabel);
+        }
+        // 任务上的标签不受项目标签约束，已带有 newLabel 的任务改名后删除多余的旧标签，与搜索索引保持一致
+        int taskLabelCount = taskRepository.replaceLabel(projectId, label, newLabel)
+            + taskRepository.deleteLabels(projectId, List.of(label));
+        int projectLabelCount = projectRepository.renameLabel(projectId, label, newLabel);
+        evictCachedLabels(projectId);
+        taskSearchIndex.renameLabel(projectId, label, newLabel);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_LABELS_CHANGED);
+        return LabelUpdateResponse.of(projectLabelCount, taskLabelCount);
+    }
+
+    @Override
+    public LabelUpdateResponse mergeProjectLabel(String projectId, String source, String target) {
+        validateLabelChange(projectId, source, target);
+        // 先把 source 改为 target，已同时带有两个标签的任务再删除多余的 source
+        int taskLabelCount = taskRepository.replaceLabel(projectId, source, target)
+            + taskRepository.deleteLabels(projectId, List.of(source));
+        int projectLabelCount = projectRepository.deleteLabels(projectId, List.of(source))
+            + projectRepository.insertLabel(projectId, target);
+        evictCachedLabels(projectId);
+        taskSearchIndex.renameLabel(projectId, source, target);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.projectChanged(projectId, ProjectEventType.PROJECT_LABELS_CHANGED);
+        return LabelUpdateResponse.of(projectLabelCount, taskLabelCount);
+    }
+
+    /**
+     * 原生 SQL 修改 project_labels 后 Hibernate 不会失效集合缓存，需要手动失效
+     * 事务结束后再失效一次，避免并发读取在提交前把旧标签重新写入缓存
+     */
+    private void evictCachedLabels(String projectId) {
+        org.hibernate.Cache cache = entityManager.getEntityManagerFactory().unwrap(SessionFactory.class).getCache();
+        cache.evictCollectionData(LABELS_ROLE, projectId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.evictCollectionData(LABELS_ROLE, projectId);
+                }
+            });
+        }
+    }
+
+    private void validateLabelChange(String projectId, String source, String target) {
+        if (target == null || target.isBlank()) {
+            throw new IllegalStateException("Target label is required");
+        }
+        if (source.equals(target)) {
+            throw new IllegalStateException("Source and target labels are the same");
+        }
+        if (!projectRepository.hasLabel(projectId, source)) {
+            throw new IllegalStateException("Label not found: " + source);
         }
     }
-} 
\ No newline at end of file
+}
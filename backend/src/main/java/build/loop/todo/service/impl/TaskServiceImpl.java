@@ -1,35 +1,109 @@
 package build.loop.todo.service.impl;
 
+import build.loop.todo.config.JdbcBatchProperties;
+import build.loop.todo.event.ProjectEventPublisher;
+import build.loop.todo.event.ProjectEventType;
 import build.loop.todo.model.entity.Project;
 import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskCounter;
 import build.loop.todo.model.entity.TaskPriority;
 import build.loop.todo.model.entity.TaskStatus;
+import build.loop.todo.model.dto.TaskBatchResponse;
+import build.loop.todo.model.dto.TaskFilter;
 import build.loop.todo.model.dto.TaskListResponse;
+import build.loop.todo.model.dto.TaskPatch;
+import build.loop.todo.model.dto.TaskStatsResponse;
 import build.loop.todo.model.dto.BatchDeleteResponse;
+import build.loop.todo.monitoring.SqlStatementCounter;
+import build.loop.todo.monitoring.SqlStatistics;
 import build.loop.todo.repository.ProjectRepository;
+import build.loop.todo.repository.ProjectRevisionRepository;
+import build.loop.todo.repository.TaskCounterRepository;
 import build.loop.todo.repository.TaskRepository;
+import build.loop.todo.repository.TaskSpecifications;
+import build.loop.todo.search.TaskSearchIndex;
+import build.loop.todo.service.ProjectService;
 import build.loop.todo.service.TaskService;
+import build.loop.todo.util.Ids;
+import build.loop.todo.util.KeysetCursor;
+import build.loop.todo.util.PageCursor;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import jakarta.persistence.EntityManager;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.data.domain.Limit;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
 import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class TaskServiceImpl implements TaskService {
+    private static final int EXPORT_FLUSH_INTERVAL = 500;
+    private static final int SEARCH_DEFAULT_LIMIT = 20;
+    private static final int SEARCH_MAX_LIMIT = 100;
+    // PostgreSQL 和 openGauss 驱动把请求返回的列追加为 RETURNING 子句，H2 直接返回被更新行的这些列
+    private static final String[] PATCH_RETURNING = {
+        "id", "title", "description", "status", "priority", "created_at", "updated_at"
+    };
+    // 计数行按固定顺序更新，同时修改多个组合的事务之间不会死锁
+    private static final Comparator<TaskCounter.Key> COUNTER_ORDER =
+        Comparator.comparing(TaskCounter.Key::getStatus).thenComparing(TaskCounter.Key::getPriority);
+
     private final TaskRepository taskRepository;
+    private final TaskCounterRepository taskCounterRepository;
     private final ProjectRepository projectRepository;
+    private final ProjectRevisionRepository projectRevisionRepository;
+    private final ProjectService projectService;
+    private final ProjectEventPublisher projectEventPublisher;
+    private final TaskSearchIndex taskSearchIndex;
+    private final EntityManager entityManager;
+    private final ObjectMapper objectMapper;
+    private final JdbcBatchProperties batchProperties;
 
     @Override
     public Task create(String projectId, Task task) {
         Project project = projectRepository.findById(projectId)
             .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-            
+
+        // 检查并创建不存在的标签
+        List<String> labelsToCreate = missingLabels(project, List.of(task));
+        if (!labelsToCreate.isEmpty()) {
+            projectService.addProjectLabels(projectId, labelsToCreate);
+            // 原生插入会清空持久化上下文，之后使用项目引用
+            project = projectRepository.getReferenceById(projectId);
+        }
+
         task.setProject(project);
         // 设置默认值
         if (task.getStatus() == null) {
@@ -41,60 +115,66 @@ public class TaskServiceImpl implements TaskService {
         if (task.getDescription() == null || task.getDescription().trim().isEmpty()) {
             task.setDescription("");
         }
-        
-        // 检查并创建不存在的标签
-        if (task.getLabels() != null && !task.getLabels().isEmpty()) {
-            for (String label : task.getLabels()) {
-                if (!project.getLabels().contains(label)) {
-                    project.getLabels().add(label);
-                }
-            }
-            projectRepository.save(project);
-        }
-        
-        return taskRepository.save(task);
+
+        Task savedTask = taskRepository.save(task);
+        adjustCounters(projectId, List.of(savedTask), 1);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_CREATED, savedTask);
+        taskSearchIndex.index(projectId, savedTask);
+        return savedTask;
     }
 
     @Override
-    public TaskListResponse batchCreate(String projectId, List<Task> tasks) {
+    public TaskBatchResponse batchCreate(String projectId, List<Task> tasks) {
         Project project = projectRepository.findById(projectId)
             .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-            
-        // 收集所有需要创建的标签
-        List<String> labelsToCreate = new ArrayList<>();
-        for (Task task : tasks) {
-            if (task.getLabels() != null) {
-                for (String label : task.getLabels()) {
-                    if (!project.getLabels().contains(label) && !labelsToCreate.contains(label)) {
-                        labelsToCreate.add(label);
-                    }
-                }
-            }
-        }
-        
-        // 创建新标签
-        if (!labelsToCreate.isEmpty()) {
-            project.getLabels().addAll(labelsToCreate);
-            projectRepository.save(project);
-        }
-        
-        List<Task> createdTasks = new ArrayList<>();
-        for (Task task : tasks) {
-            task.setProject(project);
-            // 设置默认值
-            if (task.getStatus() == null) {
-                task.setStatus(TaskStatus.TODO);
+
+        // 统计本次写入实际发往数据库的语句，范围关闭后计数并入请求的统计
+        SqlStatistics sql;
+        List<Task> createdTasks = new ArrayList<>(tasks.size());
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            // 创建所有任务中尚不存在的标签
+            List<String> labelsToCreate = missingLabels(project, tasks);
+            if (!labelsToCreate.isEmpty()) {
+                projectService.addProjectLabels(projectId, labelsToCreate);
             }
-            if (task.getPriority() == null) {
-                task.setPriority(TaskPriority.MEDIUM);
+
+            for (Task task : tasks) {
+                // 设置默认值
+                if (task.getStatus() == null) {
+                    task.setStatus(TaskStatus.TODO);
+                }
+                if (task.getPriority() == null) {
+                    task.setPriority(TaskPriority.MEDIUM);
+                }
+                if (task.getDescription() == null || task.getDescription().trim().isEmpty()) {
+                    task.setDescription("");
+                }
             }
-            if (task.getDescription() == null || task.getDescription().trim().isEmpty()) {
-                task.setDescription("");
+
+            // 分段写入，每段结束后 flush 并清空持久化上下文，避免大批量导入时上下文无限增长
+            int flushInterval = batchProperties.getFlushInterval();
+            for (int from = 0; from < tasks.size(); from += flushInterval) {
+                List<Task> chunk = tasks.subList(from, Math.min(from + flushInterval, tasks.size()));
+                // clear 之后使用引用代替已分离的项目实体，避免插入时额外查询项目
+                Project owner = entityManager.getReference(Project.class, projectId);
+                for (Task task : chunk) {
+                    task.setProject(owner);
+                }
+                createdTasks.addAll(taskRepository.saveAll(chunk));
+                entityManager.flush();
+                entityManager.clear();
             }
-            createdTasks.add(taskRepository.save(task));
+            adjustCounters(projectId, createdTasks, 1);
+            projectRevisionRepository.bump(projectId);
+            sql = scope.getStatistics();
         }
-        
-        return TaskListResponse.of(createdTasks);
+        projectEventPublisher.tasksCreated(projectId, createdTasks);
+        createdTasks.forEach(task -> taskSearchIndex.index(projectId, task));
+
+        TaskBatchResponse.Stats stats = new TaskBatchResponse.Stats(
+            Math.toIntExact(sql.getStatements()), Math.toIntExact(sql.getRoundTrips()), batchProperties.getSize());
+        return TaskBatchResponse.of(createdTasks, stats);
     }
 
     @Override
@@ -105,17 +185,103 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     @Transactional(readOnly = true)
-    public TaskListResponse findAllByProject(String projectId) {
-        Project project = projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-            
-        List<Task> tasks = taskRepository.findByProject(project);
-        return TaskListResponse.of(tasks);
+    public TaskListResponse findAllByProject(String projectId, String cursor, Integer limit) {
+        // 项目只作为查询条件，使用引用避免额外的 SELECT，项目的存在性已由成员校验保证
+        Project project = projectRepository.getReferenceById(projectId);
+
+        // 未指定分页参数时保持一次性返回全部任务的行为
+        if (cursor == null && limit == null) {
+            return TaskListResponse.of(taskRepository.findByProject(project));
+        }
+
+        // 多取一行用于判断是否存在下一页
+        int pageSize = PageCursor.normalizeLimit(limit);
+        List<Task> tasks;
+        if (cursor == null) {
+            tasks = taskRepository.findByProjectOrderByCreatedAtAscIdAsc(project, Limit.of(pageSize + 1));
+        } else {
+            PageCursor after = PageCursor.decode(cursor);
+            tasks = taskRepository.findPageAfter(project, after.createdAt(), after.id(), Limit.of(pageSize + 1));
+        }
+        tasks = new ArrayList<>(tasks);
+        String nextCursor = PageCursor.trimToPage(tasks, pageSize);
+        return TaskListResponse.of(tasks, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListResponse findAllByProject(String projectId, TaskFilter filter, String cursor, Integer limit) {
+        // 默认条件沿用按 (created_at, id) 分页的查询，游标格式保持兼容
+        if (filter.isDefault()) {
+            return findAllByProject(projectId, cursor, limit);
+        }
+        Project project = projectRepository.getReferenceById(projectId);
+        if (cursor == null && limit == null) {
+            return TaskListResponse.of(taskRepository.findAll(TaskSpecifications.page(project, filter, null)));
+        }
+
+        int pageSize = PageCursor.normalizeLimit(limit);
+        KeysetCursor after = cursor == null ? null : KeysetCursor.decode(cursor);
+        List<Task> tasks = new ArrayList<>(taskRepository.findBy(
+            TaskSpecifications.page(project, filter, after), query -> query.limit(pageSize + 1).all()));
+        String nextCursor = null;
+        if (tasks.size() > pageSize) {
+            tasks.subList(pageSize, tasks.size()).clear();
+            nextCursor = TaskSpecifications.cursorOf(tasks.getLast(), filter).encode();
+        }
+        return TaskListResponse.of(tasks, nextCursor);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskListResponse search(String projectId, String query, Integer limit) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalStateException("Query must not be blank");
+        }
+        if (limit != null && limit < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        int size = limit == null ? SEARCH_DEFAULT_LIMIT : Math.min(limit, SEARCH_MAX_LIMIT);
+        List<String> ids = taskSearchIndex.search(projectId, query, size);
+        if (ids.isEmpty()) {
+            return TaskListResponse.of(List.of());
+        }
+
+        // 按索引给出的相关度顺序返回
+        Map<String, Task> found = taskRepository.findByProjectAndIdIn(projectRepository.getReferenceById(projectId), ids)
+            .stream()
+            .collect(Collectors.toMap(Task::getId, Function.identity()));
+        return TaskListResponse.of(ids.stream().map(found::get).filter(Objects::nonNull).toList());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void exportByProject(String projectId, OutputStream outputStream) throws IOException {
+        Project project = projectRepository.getReferenceById(projectId);
+
+        // 每行一个 JSON 对象，写出后立即将任务从持久化上下文中分离，保证内存占用与项目规模无关
+        // 关闭逐个对象 flush 和根值之间的空格分隔，按 EXPORT_FLUSH_INTERVAL 分块写出
+        ObjectWriter writer = objectMapper.writer().without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        try (Stream<Task> tasks = taskRepository.streamByProject(project);
+             JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(null);
+            int count = 0;
+            for (Iterator<Task> iterator = tasks.iterator(); iterator.hasNext(); ) {
+                Task task = iterator.next();
+                writer.writeValue(generator, task);
+                generator.writeRaw('\n');
+                entityManager.detach(task);
+                if (++count % EXPORT_FLUSH_INTERVAL == 0) {
+                    generator.flush();
+                }
+            }
+        }
     }
 
     @Override
     public Task update(String projectId, String taskId, Task task) {
-        Task existingTask = taskRepository.findById(taskId)
+        Task existingTask = taskRepository.findByIdForUpdate(taskId)
             .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
             
         // 验证任务属于指定的项目
@@ -124,74 +290,123 @@ public class TaskServiceImpl implements TaskService {
         }
         
         // 更新任务属性
+        TaskStatus previousStatus = existingTask.getStatus();
+        TaskPriority previousPriority = existingTask.getPriority();
         existingTask.setTitle(task.getTitle());
         String description = task.getDescription();
         existingTask.setDescription(description == null || description.trim().isEmpty() ? "" : description);
         existingTask.setStatus(task.getStatus());
         existingTask.setPriority(task.getPriority());
-        existingTask.setLabels(task.getLabels());
+        // 标签未变化时保留原集合，避免 Hibernate 删除后重新写入全部标签
+        if (!new ArrayList<>(existingTask.getLabels()).equals(task.getLabels())) {
+            existingTask.setLabels(task.getLabels());
+        }
         
-        return taskRepository.save(existingTask);
+        Task savedTask = taskRepository.save(existingTask);
+        moveCounter(projectId, previousStatus, previousPriority, savedTask);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_UPDATED, savedTask);
+        taskSearchIndex.index(projectId, savedTask);
+        return savedTask;
     }
 
     @Override
-    public void deleteById(String projectId, String taskId) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
-            
-        // 验证任务属于指定的项目
-        if (!task.getProject().getId().equals(projectId)) {
-            throw new IllegalArgumentException("Task does not belong to the specified project");
+    public Task patch(String projectId, String taskId, TaskPatch patch) {
+        if (patch.isEmpty()) {
+            return taskRepository.findById(taskId)
+                .filter(task -> task.getProject().getId().equals(projectId))
+                .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
         }
-        
-        taskRepository.delete(task);
+        // 绕过持久化上下文直接执行 SQL，执行前写出未提交的修改，执行后清空以免读到旧实体
+        entityManager.flush();
+        PatchResult result = entityManager.unwrap(Session.class)
+            .doReturningWork(connection -> executePatch(connection, projectId, taskId, patch));
+        entityManager.clear();
+        if (result == null) {
+            throw new EntityNotFoundException("Task not found: " + taskId);
+        }
+
+        Task task = result.task();
+        task.setProject(projectRepository.getReferenceById(projectId));
+        if (patch.getStatus() != null || patch.getPriority() != null) {
+            moveCounter(projectId, result.previousStatus(), result.previousPriority(), task);
+        }
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.taskChanged(projectId, patchEventType(patch), task);
+        if (patch.getTitle() != null || patch.getDescription() != null || patch.getLabels() != null) {
+            taskSearchIndex.index(projectId, task);
+        }
+        return task;
     }
 
     @Override
-    public BatchDeleteResponse deleteByIds(String projectId, List<String> taskIds) {
-        // 验证项目存在
-        projectRepository.findById(projectId)
-            .orElseThrow(() -> new EntityNotFoundException("Project not found: " + projectId));
-            
-        List<Task> tasks = taskRepository.findAllById(taskIds);
-        
-        // 验证所有任务都属于指定的项目
-        for (Task task : tasks) {
-            if (!task.getProject().getId().equals(projectId)) {
-                throw new IllegalArgumentException("Task does not belong to the specified project: " + task.getId());
-            }
+    public void deleteById(String projectId, String taskId) {
+        // 先加锁取得状态和优先级用于扣减计数，项目归属校验在同一条查询中完成
+        List<Task> locked = taskRepository.lockByProjectIdAndIdIn(projectId, List.of(taskId));
+        if (locked.isEmpty()) {
+            throw new EntityNotFoundException("Task not found: " + taskId);
         }
-        
-        taskRepository.deleteAll(tasks);
-        return BatchDeleteResponse.of(tasks.size());
+        taskRepository.deleteByProjectIdAndIdIn(projectId, List.of(taskId));
+        adjustCounters(projectId, locked, -1);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.tasksDeleted(projectId, List.of(taskId));
+        taskSearchIndex.remove(projectId, List.of(taskId));
     }
 
     @Override
-    public void updateTaskStatus(String projectId, String taskId, String status) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
-            
-        // 验证任务属于指定的项目
-        if (!task.getProject().getId().equals(projectId)) {
-            throw new IllegalArgumentException("Task does not belong to the specified project");
+    public BatchDeleteResponse deleteByIds(String projectId, List<String> taskIds) {
+        if (taskIds == null || taskIds.isEmpty()) {
+            return BatchDeleteResponse.of(0);
         }
-        
-        task.setStatus(TaskStatus.fromValue(status));
-        taskRepository.save(task);
+        // 不属于该项目或格式不对的任务 ID 会被忽略
+        List<Task> locked = taskRepository.lockByProjectIdAndIdIn(projectId, Ids.validOnly(taskIds));
+        if (locked.isEmpty()) {
+            return BatchDeleteResponse.of(0);
+        }
+        List<String> lockedIds = locked.stream().map(Task::getId).toList();
+        int deleted = taskRepository.deleteByProjectIdAndIdIn(projectId, lockedIds);
+        adjustCounters(projectId, locked, -1);
+        projectRevisionRepository.bump(projectId);
+        projectEventPublisher.tasksDeleted(projectId, lockedIds);
+        taskSearchIndex.remove(projectId, lockedIds);
+        return BatchDeleteResponse.of(deleted);
     }
 
     @Override
-    public void updateTaskPriority(String projectId, String taskId, String priority) {
-        Task task = taskRepository.findById(taskId)
-            .orElseThrow(() -> new EntityNotFoundException("Task not found: " + taskId));
-            
-        // 验证任务属于指定的项目
-        if (!task.getProject().getId().equals(projectId)) {
-            throw new IllegalArgumentException("Task does not belong to the specified project");
+    public void applyCoalescedChanges(
+            String projectId, Map<String, TaskStatus> statuses, Map<String, TaskPriority> priorities) {
+        Set<String> taskIds = new HashSet<>(statuses.keySet());
+        taskIds.addAll(priorities.keySet());
+        if (taskIds.isEmpty()) {
+            return;
         }
-        
-        task.setPriority(TaskPriority.fromValue(priority));
-        taskRepository.save(task);
+        // 加锁读取当前值用于移动计数，修改后的实体在提交时按 JDBC 批处理一次发送
+        Map<TaskCounter.Key, Long> deltas = new TreeMap<>(COUNTER_ORDER);
+        List<Task> statusChanged = new ArrayList<>();
+        List<Task> priorityChanged = new ArrayList<>();
+        for (Task task : taskRepository.lockByProjectIdAndIdIn(projectId, taskIds)) {
+            TaskStatus previousStatus = task.getStatus();
+            TaskPriority previousPriority = task.getPriority();
+            task.setStatus(statuses.getOrDefault(task.getId(), previousStatus));
+            task.setPriority(priorities.getOrDefault(task.getId(), previousPriority));
+            if (task.getStatus() != previousStatus) {
+                statusChanged.add(task);
+            }
+            if (task.getPriority() != previousPriority) {
+                priorityChanged.add(task);
+            }
+            if (task.getStatus() != previousStatus || task.getPriority() != previousPriority) {
+                deltas.merge(new TaskCounter.Key(projectId, previousStatus, previousPriority), -1L, Long::sum);
+                deltas.merge(new TaskCounter.Key(projectId, task.getStatus(), task.getPriority()), 1L, Long::sum);
+            }
+        }
+        if (statusChanged.isEmpty() && priorityChanged.isEmpty()) {
+            return;
+        }
+        applyCounterDeltas(projectId, deltas);
+        projectRevisionRepository.bump(projectId);
+        statusChanged.forEach(task -> projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_STATUS_CHANGED, task));
+        priorityChanged.forEach(task -> projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_PRIORITY_CHANGED, task));
     }
 
     @Override
@@ -207,6 +422,9 @@ public class TaskServiceImpl implements TaskService {
         if (!task.getLabels().contains(label)) {
             task.getLabels().add(label);
             taskRepository.save(task);
+            projectRevisionRepository.bump(projectId);
+            projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_LABELS_CHANGED, task);
+            taskSearchIndex.index(projectId, task);
         }
     }
 
@@ -222,6 +440,212 @@ public class TaskServiceImpl implements TaskService {
         
         if (task.getLabels().remove(label)) {
             taskRepository.save(task);
+            projectRevisionRepository.bump(projectId);
+            projectEventPublisher.taskChanged(projectId, ProjectEventType.TASK_LABELS_CHANGED, task);
+            taskSearchIndex.index(projectId, task);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public TaskStatsResponse getStats(String projectId) {
+        return TaskStatsResponse.of(taskCounterRepository.findByProjectId(projectId));
+    }
+
+    @Override
+    public void reconcileCounters(String projectId) {
+        Map<TaskCounter.Key, TaskCounter> counters = taskCounterRepository.lockByProjectId(projectId).stream()
+            .collect(Collectors.toMap(TaskCounter::key, Function.identity()));
+        Map<TaskCounter.Key, Long> actual = new HashMap<>();
+        for (Object[] row : taskRepository.countByStatusAndPriority(projectId)) {
+            actual.put(new TaskCounter.Key(projectId, (TaskStatus) row[0], (TaskPriority) row[1]), (Long) row[2]);
+        }
+
+        int drifted = 0;
+        for (TaskCounter expected : TaskCounter.emptyCounters(projectId)) {
+            long count = actual.getOrDefault(expected.key(), 0L);
+            TaskCounter counter = counters.get(expected.key());
+            if (counter == null) {
+                expected.setTaskCount(count);
+                entityManager.persist(expected);
+                drifted++;
+            } else if (counter.getTaskCount() != count) {
+                counter.setTaskCount(count);
+                drifted++;
+            }
+        }
+        if (drifted > 0) {
+            // 计数变化会体现在统计接口的响应里，需要让客户端缓存的 ETag 失效
+            projectRevisionRepository.bump(projectId);
+            log.info("Reconciled {} task counters of project {}", drifted, projectId);
+        }
+    }
+
+    /**
+     * 修改状态或优先级时先锁定行取得旧值用于移动计数，其余字段只需一条 UPDATE；
+     * 仅在补丁包含标签时改写 task_labels，否则只读取标签用于响应。任务不存在时返回 null
+     */
+    private PatchResult executePatch(Connection connection, String projectId, String taskId, TaskPatch patch)
+            throws SQLException {
+        TaskStatus previousStatus = null;
+        TaskPriority previousPriority = null;
+        if (patch.getStatus() != null || patch.getPriority() != null) {
+            try (PreparedStatement lock = connection.prepareStatement(
+                    "SELECT status, priority FROM tasks WHERE id = ? AND project_id = ? FOR UPDATE")) {
+                lock.setString(1, taskId);
+                lock.setString(2, projectId);
+                try (ResultSet row = lock.executeQuery()) {
+                    if (!row.next()) {
+                        return null;
+                    }
+                    previousStatus = TaskStatus.valueOf(row.getString(1));
+                    previousPriority = TaskPriority.valueOf(row.getString(2));
+                }
+            }
+        }
+
+        List<String> assignments = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        if (patch.getTitle() != null) {
+            assignments.add("title = ?");
+            parameters.add(patch.getTitle());
         }
+        if (patch.getDescription() != null) {
+            assignments.add("description = ?");
+            parameters.add(patch.getDescription());
+        }
+        if (patch.getStatus() != null) {
+            assignments.add("status = ?");
+            parameters.add(patch.getStatus().name());
+        }
+        if (patch.getPriority() != null) {
+            assignments.add("priority = ?");
+            parameters.add(patch.getPriority().name());
+        }
+        assignments.add("updated_at = ?");
+        parameters.add(Timestamp.valueOf(LocalDateTime.now()));
+        parameters.add(taskId);
+        parameters.add(projectId);
+
+        Task task = new Task();
+        String sql = "UPDATE tasks SET " + String.join(", ", assignments) + " WHERE id = ? AND project_id = ?";
+        try (PreparedStatement update = connection.prepareStatement(sql, PATCH_RETURNING)) {
+            for (int i = 0; i < parameters.size(); i++) {
+                update.setObject(i + 1, parameters.get(i));
+            }
+            if (update.executeUpdate() == 0) {
+                return null;
+            }
+            try (ResultSet row = update.getGeneratedKeys()) {
+                row.next();
+                task.setId(row.getString("id"));
+                task.setTitle(row.getString("title"));
+                task.setDescription(row.getString("description"));
+                task.setStatus(TaskStatus.valueOf(row.getString("status")));
+                task.setPriority(TaskPriority.valueOf(row.getString("priority")));
+                task.setCreatedAt(row.getTimestamp("created_at").toLocalDateTime());
+                task.setUpdatedAt(row.getTimestamp("updated_at").toLocalDateTime());
+            }
+        }
+
+        if (patch.getLabels() != null) {
+            try (PreparedStatement delete = connection.prepareStatement("DELETE FROM task_labels WHERE task_id = ?")) {
+                delete.setString(1, taskId);
+                delete.executeUpdate();
+            }
+            if (!patch.getLabels().isEmpty()) {
+                try (PreparedStatement insert = connection.prepareStatement(
+                        "INSERT INTO task_labels (task_id, label) VALUES (?, ?)")) {
+                    for (String label : patch.getLabels()) {
+                        insert.setString(1, taskId);
+                        insert.setString(2, label);
+                        insert.addBatch();
+                    }
+                    insert.executeBatch();
+                }
+            }
+            task.setLabels(new ArrayList<>(patch.getLabels()));
+        } else {
+            try (PreparedStatement select = connection.prepareStatement("SELECT label FROM task_labels WHERE task_id = ?")) {
+                select.setString(1, taskId);
+                try (ResultSet rows = select.executeQuery()) {
+                    while (rows.next()) {
+                        task.getLabels().add(rows.getString(1));
+                    }
+                }
+            }
+        }
+        return new PatchResult(task, previousStatus, previousPriority);
+    }
+
+    private static ProjectEventType patchEventType(TaskPatch patch) {
+        boolean status = patch.getStatus() != null;
+        boolean priority = patch.getPriority() != null;
+        boolean labels = patch.getLabels() != null;
+        boolean content = patch.getTitle() != null || patch.getDescription() != null;
+        if (status && !priority && !labels && !content) {
+            return ProjectEventType.TASK_STATUS_CHANGED;
+        }
+        if (priority && !status && !labels && !content) {
+            return ProjectEventType.TASK_PRIORITY_CHANGED;
+        }
+        if (labels && !status && !priority && !content) {
+            return ProjectEventType.TASK_LABELS_CHANGED;
+        }
+        return ProjectEventType.TASK_UPDATED;
+    }
+
+    private record PatchResult(Task task, TaskStatus previousStatus, TaskPriority previousPriority) {
+    }
+
+    /**
+     * 任务引用的、项目中尚不存在的标签，按首次出现的顺序去重
+     */
+    private static List<String> missingLabels(Project project, List<Task> tasks) {
+        List<String> labels = new ArrayList<>();
+        for (Task task : tasks) {
+            if (task.getLabels() != null) {
+                for (String label : task.getLabels()) {
+                    if (!project.getLabels().contains(label) && !labels.contains(label)) {
+                        labels.add(label);
+                    }
+                }
+            }
+        }
+        return labels;
+    }
+
+    /**
+     * 状态或优先级变化时把任务从旧组合移到新组合
+     */
+    private void moveCounter(String projectId, TaskStatus previousStatus, TaskPriority previousPriority, Task task) {
+        if (previousStatus == task.getStatus() && previousPriority == task.getPriority()) {
+            return;
+        }
+        Map<TaskCounter.Key, Long> deltas = new TreeMap<>(COUNTER_ORDER);
+        deltas.merge(new TaskCounter.Key(projectId, previousStatus, previousPriority), -1L, Long::sum);
+        deltas.merge(new TaskCounter.Key(projectId, task.getStatus(), task.getPriority()), 1L, Long::sum);
+        applyCounterDeltas(projectId, deltas);
+    }
+
+    /**
+     * 按组合汇总后每个组合只执行一条 UPDATE，批量写入最多更新全部组合各一次
+     */
+    private void adjustCounters(String projectId, Collection<Task> tasks, long sign) {
+        Map<TaskCounter.Key, Long> deltas = new TreeMap<>(COUNTER_ORDER);
+        for (Task task : tasks) {
+            deltas.merge(new TaskCounter.Key(projectId, task.getStatus(), task.getPriority()), sign, Long::sum);
+        }
+        applyCounterDeltas(projectId, deltas);
+    }
+
+    private void applyCounterDeltas(String projectId, Map<TaskCounter.Key, Long> deltas) {
+        deltas.forEach((key, delta) -> {
+            if (delta != 0 && taskCounterRepository.increment(
+                    projectId, key.getStatus().name(), key.getPriority().name(), delta) == 0) {
+                // 尚未预置计数行的旧项目，由 TaskCounterReconciler 补齐
+                log.warn("Missing task counter {} of project {}", key, projectId);
+            }
+        });
     }
-} 
\ No newline at end of file
+}
@@ -4,6 +4,7 @@ import build.loop.todo.model.entity.User;
 import build.loop.todo.model.entity.UserSettings;
 import build.loop.todo.repository.UserRepository;
 import build.loop.todo.repository.UserSettingsRepository;
+import build.loop.todo.security.PrincipalCache;
 import build.loop.todo.service.UserService;
 import jakarta.persistence.EntityNotFoundException;
 import lombok.RequiredArgsConstructor;
@@ -21,6 +22,7 @@ public class UserServiceImpl implements UserService {
     private final UserRepository userRepository;
     private final UserSettingsRepository userSettingsRepository;
     private final PasswordEncoder passwordEncoder;
+    private final PrincipalCache principalCache;
 
     @Override
     public User register(User user) {
@@ -63,12 +65,15 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public User update(User user) {
-        return userRepository.save(user);
+        User savedUser = userRepository.save(user);
+        principalCache.evictUser(savedUser.getId());
+        return savedUser;
     }
 
     @Override
     public void deleteById(String id) {
         userRepository.deleteById(id);
+        principalCache.evictUser(id);
     }
 
     @Override
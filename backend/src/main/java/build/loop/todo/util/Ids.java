@@ -0,0 +1,29 @@
+package build.loop.todo.util;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.regex.Pattern;
+
+/**
+ * 主键格式校验
+ * 主键在数据库中是 uuid 类型，格式不对的 id 不可能匹配任何行，在进入查询前拦下，
+ * 避免在 UUID 解析或数据库类型转换时报错
+ */
+public final class Ids {
+    private static final Pattern UUID_FORMAT =
+            Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+
+    private Ids() {
+    }
+
+    public static boolean isValid(String id) {
+        return id != null && UUID_FORMAT.matcher(id).matches();
+    }
+
+    /**
+     * 去掉格式不对的 id，批量操作中这些 id 与不存在的 id 一样不匹配任何行
+     */
+    public static List<String> validOnly(Collection<String> ids) {
+        return ids.stream().filter(Ids::isValid).toList();
+    }
+}
@@ -0,0 +1,28 @@
+package build.loop.todo.util;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 按任意排序列分页的游标，依次保存本页最后一行在各排序列上的值
+ * 与 PageCursor 一样对外是不透明的 Base64 字符串，值的类型由排序方式决定
+ */
+public record KeysetCursor(List<String> values) {
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        String raw = String.join(SEPARATOR, values);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static KeysetCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            return new KeysetCursor(Arrays.asList(raw.split("\\" + SEPARATOR, -1)));
+        } catch (IllegalArgumentException e) {
+            throw new IllegalStateException("Invalid cursor");
+        }
+    }
+}
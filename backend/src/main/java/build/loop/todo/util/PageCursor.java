@@ -0,0 +1,64 @@
+package build.loop.todo.util;
+
+import build.loop.todo.model.BaseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+
+/**
+ * 基于 (created_at, id) 的分页游标
+ * 对外是不透明的 Base64 字符串，服务端解码后用作 seek 查询的起点
+ */
+public record PageCursor(LocalDateTime createdAt, String id) {
+    public static final int DEFAULT_LIMIT = 100;
+    public static final int MAX_LIMIT = 1000;
+
+    private static final char SEPARATOR = '|';
+
+    public String encode() {
+        String raw = createdAt.toString() + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static PageCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int index = raw.indexOf(SEPARATOR);
+            if (index <= 0 || !Ids.isValid(raw.substring(index + 1))) {
+                throw new IllegalStateException("Invalid cursor");
+            }
+            return new PageCursor(LocalDateTime.parse(raw.substring(0, index)), raw.substring(index + 1));
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            throw new IllegalStateException("Invalid cursor");
+        }
+    }
+
+    /**
+     * 规范化请求中的 limit，未指定时使用默认值
+     */
+    public static int normalizeLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new IllegalStateException("Limit must be positive");
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+
+    /**
+     * 查询时多取一行用于判断是否还有下一页
+     * 若存在多余的行则将其移除，并返回指向本页最后一行的游标，否则返回 null
+     */
+    public static String trimToPage(List<? extends BaseEntity> rows, int limit) {
+        if (rows.size() <= limit) {
+            return null;
+        }
+        rows.subList(limit, rows.size()).clear();
+        BaseEntity last = rows.get(limit - 1);
+        return new PageCursor(last.getCreatedAt(), last.getId()).encode();
+    }
+}
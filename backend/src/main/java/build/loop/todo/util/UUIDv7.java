@@ -1,33 +1,145 @@
 package build.loop.todo.util;
 
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.security.NoSuchAlgorithmException;
 import java.security.SecureRandom;
-import java.time.Instant;
 import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
 
-public class UUIDv7 {
-    private static final SecureRandom RANDOM = new SecureRandom();
+/**
+ * RFC 9562 UUIDv7 生成器，同一进程内生成的 id 严格递增
+ * <p>
+ * 高 64 位为 48 位毫秒时间戳和 rand_a 中的 12 位计数器（RFC 9562 6.2 节方法 1）。
+ * 每毫秒的第一个 id 用随机数初始化计数器且保留最高位为 0，同一毫秒内逐个加一；
+ * 计数器用尽或系统时钟回拨时借用下一毫秒，保证顺序不倒退。
+ * 低 64 位的 rand_b 来自分段的 SecureRandom，线程按 id 分散到不同分段，避免争用同一把锁；
+ * 每个分段一次取 4KB 随机字节缓存起来，摊薄每次调用 SecureRandom 的固定开销。
+ */
+public final class UUIDv7 {
+    private static final int COUNTER_BITS = 12;
+    private static final long COUNTER_SEED_MASK = (1L << (COUNTER_BITS - 1)) - 1;
+    private static final byte[] HEX = "0123456789abcdef".getBytes(StandardCharsets.US_ASCII);
+    private static final int STRING_LENGTH = 36;
+
+    private static final RandomStripe[] STRIPES = createStripes();
+    private static final int STRIPE_MASK = STRIPES.length - 1;
+    // 上一个 id 的时间戳和计数器，(毫秒 << 12) | 计数器
+    private static final AtomicLong LAST = new AtomicLong();
+
+    private UUIDv7() {
+    }
 
     public static UUID generate() {
-        long timestamp = Instant.now().toEpochMilli();
-        
-        // 使用时间戳的前48位
-        long msb = timestamp << 16;
-        // 使用随机数填充剩余位
-        msb |= RANDOM.nextInt(0x10000) & 0xFFFFL;
-        
-        // 生成随机的低64位
-        long lsb = RANDOM.nextLong();
-        
-        // 设置版本（7）和变体位
-        msb &= ~0xF000L; // 清除版本位
-        msb |= 0x7000L;  // 设置版本为 7
-        lsb &= ~0x4000000000000000L; // 清除变体位
-        lsb |= 0x8000000000000000L;  // 设置 RFC-4122 变体
-        
-        return new UUID(msb, lsb);
+        RandomStripe random = stripe();
+        return new UUID(nextMsb(random), nextLsb(random));
     }
 
     public static String generateString() {
-        return generate().toString();
+        RandomStripe random = stripe();
+        byte[] buffer = new byte[STRING_LENGTH];
+        encode(nextMsb(random), nextLsb(random), buffer, 0);
+        return new String(buffer, StandardCharsets.ISO_8859_1);
+    }
+
+    /**
+     * 把 UUID 按标准 8-4-4-4-12 小写格式写入 dst 的 offset 处，共 36 字节，不分配对象
+     */
+    public static void encode(long msb, long lsb, byte[] dst, int offset) {
+        hex(msb >>> 32, 8, dst, offset);
+        dst[offset + 8] = '-';
+        hex(msb >>> 16, 4, dst, offset + 9);
+        dst[offset + 13] = '-';
+        hex(msb, 4, dst, offset + 14);
+        dst[offset + 18] = '-';
+        hex(lsb >>> 48, 4, dst, offset + 19);
+        dst[offset + 23] = '-';
+        hex(lsb, 12, dst, offset + 24);
+    }
+
+    private static long nextMsb(RandomStripe random) {
+        long now = System.currentTimeMillis() << COUNTER_BITS;
+        long seed = random.nextLong() & COUNTER_SEED_MASK;
+        long prev;
+        long next;
+        do {
+            prev = LAST.get();
+            next = now > prev ? now | seed : prev + 1;
+        } while (!LAST.compareAndSet(prev, next));
+
+        // 时间戳占 48 位，计数器占版本号之后的 12 位
+        long timestamp = next >>> COUNTER_BITS;
+        long counter = next & ((1L << COUNTER_BITS) - 1);
+        return (timestamp << 16) | 0x7000L | counter;
+    }
+
+    private static long nextLsb(RandomStripe random) {
+        // 设置 RFC 9562 变体位 10
+        return (random.nextLong() & 0x3FFFFFFFFFFFFFFFL) | 0x8000000000000000L;
+    }
+
+    private static RandomStripe stripe() {
+        return STRIPES[(int) Thread.currentThread().threadId() & STRIPE_MASK];
+    }
+
+    private static void hex(long value, int digits, byte[] dst, int offset) {
+        for (int i = digits - 1; i >= 0; i--) {
+            dst[offset + i] = HEX[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    /**
+     * 分段数为处理器数两倍向上取 2 的幂。优先使用 DRBG，它在初始播种后不再读取系统熵源，不会阻塞
+     */
+    private static RandomStripe[] createStripes() {
+        int count = Integer.highestOneBit(Math.max(1, Runtime.getRuntime().availableProcessors() * 2 - 1)) << 1;
+        RandomStripe[] stripes = new RandomStripe[count];
+        for (int i = 0; i < count; i++) {
+            SecureRandom random;
+            try {
+                random = SecureRandom.getInstance("DRBG");
+            } catch (NoSuchAlgorithmException e) {
+                random = new SecureRandom();
+            }
+            stripes[i] = new RandomStripe(random);
+        }
+        return stripes;
+    }
+
+    /**
+     * 一个分段的随机数缓冲，用 ReentrantLock 而非 synchronized，虚拟线程等待时不会占住载体线程
+     */
+    private static final class RandomStripe {
+        private static final int BUFFER_SIZE = 4096;
+        private static final VarHandle LONGS =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+        private final ReentrantLock lock = new ReentrantLock();
+        private final SecureRandom random;
+        private final byte[] buffer = new byte[BUFFER_SIZE];
+        private int position = BUFFER_SIZE;
+
+        RandomStripe(SecureRandom random) {
+            this.random = random;
+        }
+
+        long nextLong() {
+            lock.lock();
+            try {
+                if (position == BUFFER_SIZE) {
+                    random.nextBytes(buffer);
+                    position = 0;
+                }
+                long value = (long) LONGS.get(buffer, position);
+                position += Long.BYTES;
+                return value;
+            } finally {
+                lock.unlock();
+            }
+        }
     }
-} 
\ No newline at end of file
+}
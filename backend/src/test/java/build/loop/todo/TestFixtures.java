@@ -0,0 +1,58 @@
+package build.loop.todo;
+
+import build.loop.todo.model.entity.Project;
+import build.loop.todo.model.entity.User;
+import build.loop.todo.repository.UserRepository;
+import build.loop.todo.service.JwtService;
+import build.loop.todo.service.ProjectService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.UUID;
+
+/**
+ * 测试共用的用户和项目数据，名称带随机后缀，各测试类共享同一个内存数据库也不会冲突
+ */
+@Component
+@RequiredArgsConstructor
+public class TestFixtures {
+    private final UserRepository userRepository;
+    private final ProjectService projectService;
+    private final JwtService jwtService;
+
+    /**
+     * 保存一个用户名为 prefix-随机后缀 的用户
+     */
+    public User user(String prefix) {
+        String suffix = UUID.randomUUID().toString().substring(0, 8);
+        User user = new User();
+        user.setUsername(prefix + "-" + suffix);
+        user.setEmail(prefix + "-" + suffix + "@example.com");
+        user.setPassword("unused");
+        return userRepository.save(user);
+    }
+
+    /**
+     * 以该用户为所有者创建项目，返回项目 ID
+     */
+    public String project(User owner) {
+        Project project = new Project();
+        project.setName("Project " + owner.getUsername());
+        return projectService.create(project, owner.getId()).getId();
+    }
+
+    /**
+     * 保存用户并创建其所有的项目
+     */
+    public UserWithProject userWithProject(String prefix) {
+        User user = user(prefix);
+        return new UserWithProject(user, project(user));
+    }
+
+    public String bearer(User user) {
+        return "Bearer " + jwtService.generateToken(user);
+    }
+
+    public record UserWithProject(User user, String projectId) {
+    }
+}
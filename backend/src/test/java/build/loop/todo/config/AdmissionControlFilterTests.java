@@ -0,0 +1,92 @@
+package build.loop.todo.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 许可用尽时排队超时的请求返回 503，许可释放后恢复处理；流式响应的许可保留到异步请求结束
+ */
+class AdmissionControlFilterTests {
+    @Test
+    void rejectsRequestsBeyondLimitAfterQueueTimeout() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                null, new ObjectMapper(), new SimpleMeterRegistry(), 1, 50);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            Future<MockHttpServletResponse> slow = executor.submit(() -> {
+                MockHttpServletResponse response = new MockHttpServletResponse();
+                filter.doFilter(request(), response, (req, res) -> {
+                    entered.countDown();
+                    try {
+                        release.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                });
+                return response;
+            });
+            entered.await();
+
+            MockHttpServletResponse rejected = new MockHttpServletResponse();
+            filter.doFilter(request(), rejected, (req, res) -> { });
+            assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+            assertThat(rejected.getContentAsString()).contains("SERVICE_UNAVAILABLE");
+
+            release.countDown();
+            assertThat(slow.get().getStatus()).isEqualTo(HttpStatus.OK.value());
+        }
+
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request(), admitted, (req, res) -> { });
+        assertThat(admitted.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    @Test
+    void streamingResponsesHoldPermitUntilAsyncCompletes() throws Exception {
+        AdmissionControlFilter filter = new AdmissionControlFilter(
+                null, new ObjectMapper(), new SimpleMeterRegistry(), 1, 50);
+
+        // SSE 订阅在处理方法返回后即释放许可
+        MockHttpServletRequest events = request();
+        filter.doFilter(events, new MockHttpServletResponse(), (req, res) -> {
+            res.setContentType(MediaType.TEXT_EVENT_STREAM_VALUE);
+            req.startAsync();
+        });
+        assertThat(events.isAsyncStarted()).isTrue();
+
+        // 流式导出在异步请求结束前一直占用许可
+        MockHttpServletRequest export = request();
+        filter.doFilter(export, new MockHttpServletResponse(), (req, res) -> {
+            res.setContentType("application/x-ndjson");
+            req.startAsync();
+        });
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(request(), rejected, (req, res) -> { });
+        assertThat(rejected.getStatus()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE.value());
+
+        export.getAsyncContext().complete();
+        MockHttpServletResponse admitted = new MockHttpServletResponse();
+        filter.doFilter(request(), admitted, (req, res) -> { });
+        assertThat(admitted.getStatus()).isEqualTo(HttpStatus.OK.value());
+    }
+
+    private static MockHttpServletRequest request() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/projects");
+        request.setAsyncSupported(true);
+        return request;
+    }
+}
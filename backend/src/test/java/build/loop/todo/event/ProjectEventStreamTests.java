@@ -0,0 +1,61 @@
+package build.loop.todo.event;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import build.loop.todo.model.dto.TaskPatch;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.service.TaskService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Duration;
+
+import static org.awaitility.Awaitility.await;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+
+/**
+ * 事务提交后的任务变更推送到项目的 SSE 订阅者
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectEventStreamTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Test
+    void committedTaskChangesArePushed() throws Exception {
+        UserWithProject fixture = fixtures.userWithProject("events");
+        String projectId = fixture.projectId();
+        String title = "Pushed " + fixture.user().getUsername();
+
+        MockHttpServletResponse response = mockMvc.perform(get("/api/v1/projects/{id}/events", projectId)
+                .accept(MediaType.TEXT_EVENT_STREAM)
+                .header("Authorization", fixtures.bearer(fixture.user())))
+            .andExpect(request().asyncStarted())
+            .andReturn().getResponse();
+
+        Task task = new Task();
+        task.setTitle(title);
+        String taskId = taskService.create(projectId, task).getId();
+        taskService.patch(projectId, taskId, TaskPatch.ofStatus("done"));
+        taskService.deleteById(projectId, taskId);
+
+        await().atMost(Duration.ofSeconds(5)).until(() -> {
+            String body = response.getContentAsString();
+            return body.contains("event:task.created") && body.contains(title)
+                && body.contains("event:task.status") && body.contains("event:task.deleted");
+        });
+    }
+}
@@ -0,0 +1,311 @@
+package build.loop.todo.load;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.core.env.Environment;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 端到端压测：在随机端口启动完整后端，数据库使用 PostgreSQL 兼容模式的 H2，无需 openGauss
+ * 每个虚拟用户按固定种子在登录、看板轮询、拖拽改状态、批量创建和标签编辑之间随机选择操作，
+ * 预热后统计各场景的吞吐量、延迟分位数和错误率，结果写入 target/load-test 下以提交号命名的 JSON 文件
+ * <p>
+ * 运行：./mvnw -Ploadtest test，可用 -Dload.users、-Dload.duration、-Dload.warmup、-Dload.seed 调整参数
+ */
+@Tag("load")
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+    "logging.level.build.loop.todo=INFO",
+    "logging.level.org.springframework.security=INFO"
+})
+@Slf4j
+class BoardLoadTests {
+    private static final String PASSWORD = "load-test-password";
+    private static final int MEMBERS_PER_PROJECT = 4;
+    private static final int SEED_TASKS = 200;
+    private static final int BATCH_SIZE = 10;
+    private static final int BOARD_PAGE = 200;
+    private static final String[] STATUSES = {"backlog", "todo", "in progress", "done"};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient client = HttpClient.newBuilder()
+        .executor(Executors.newVirtualThreadPerTaskExecutor())
+        .build();
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    enum Scenario {
+        LOGIN("login", 5),
+        BOARD_POLL("board_poll", 60),
+        STATUS_PATCH("status_patch", 20),
+        BATCH_CREATE("batch_create", 7),
+        LABEL_EDIT("label_edit", 8);
+
+        private final String key;
+        private final int weight;
+
+        Scenario(String key, int weight) {
+            this.key = key;
+            this.weight = weight;
+        }
+
+        String key() {
+            return key;
+        }
+
+        static Scenario pick(Random random) {
+            int roll = random.nextInt(100);
+            for (Scenario scenario : values()) {
+                roll -= scenario.weight;
+                if (roll < 0) {
+                    return scenario;
+                }
+            }
+            return BOARD_POLL;
+        }
+    }
+
+    @Test
+    void boardWorkload() throws Exception {
+        int users = Integer.getInteger("load.users", 32);
+        Duration warmup = Duration.parse("PT" + System.getProperty("load.warmup", "10s"));
+        Duration duration = Duration.parse("PT" + System.getProperty("load.duration", "30s"));
+        long seed = Long.getLong("load.seed", 42L);
+        double maxErrorRate = Double.parseDouble(System.getProperty("load.max-error-rate", "0.01"));
+
+        List<VirtualUser> virtualUsers = setUp(users, seed);
+        log.info("Load test: {} users, warmup {}, duration {}", users, warmup, duration);
+
+        long measureFrom = System.nanoTime() + warmup.toNanos();
+        long deadline = measureFrom + duration.toNanos();
+        List<Map<Scenario, LoadReport.Recorder>> recorders = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            List<Future<Map<Scenario, LoadReport.Recorder>>> futures = new ArrayList<>();
+            for (VirtualUser user : virtualUsers) {
+                futures.add(executor.submit(() -> user.run(measureFrom, deadline)));
+            }
+            for (Future<Map<Scenario, LoadReport.Recorder>> future : futures) {
+                recorders.add(future.get());
+            }
+        }
+
+        LoadReport report = new LoadReport(recorders);
+        Map<String, Object> run = new LinkedHashMap<>();
+        run.put("commit", commit());
+        run.put("java", System.getProperty("java.version"));
+        run.put("virtual_threads", environment.getProperty("spring.threads.virtual.enabled", Boolean.class, false));
+        run.put("users", users);
+        run.put("warmup_seconds", warmup.toSeconds());
+        run.put("duration_seconds", duration.toSeconds());
+        run.put("seed", seed);
+        Path file = Path.of(System.getProperty("load.output-dir", "target/load-test"),
+            run.get("commit") + "-" + LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss")) + ".json");
+        report.write(file, run, duration);
+        log.info("Load test results written to {}\n{}", file.toAbsolutePath(), report.table(duration));
+
+        @SuppressWarnings("unchecked")
+        Map<String, Map<String, Object>> scenarios = (Map<String, Map<String, Object>>) report.toMap(run, duration).get("scenarios");
+        assertThat(scenarios.values()).anySatisfy(stats -> assertThat((int) stats.get("count")).isPositive());
+        scenarios.forEach((scenario, stats) -> assertThat((double) stats.get("error_rate"))
+            .as("error rate of %s", scenario)
+            .isLessThanOrEqualTo(maxErrorRate));
+    }
+
+    /**
+     * 注册用户并按每 4 人一个项目分组，每个项目预置 200 个任务
+     */
+    private List<VirtualUser> setUp(int users, long seed) throws Exception {
+        String runId = Long.toString(System.nanoTime(), 36);
+        List<VirtualUser> virtualUsers = new ArrayList<>();
+        String projectId = null;
+        String ownerToken = null;
+        for (int i = 0; i < users; i++) {
+            String email = "load-" + runId + "-" + i + "@example.com";
+            JsonNode registered = send(post("/api/v1/auth/register", Map.of(
+                "username", "load-" + runId + "-" + i, "email", email, "password", PASSWORD), null), 200);
+            String token = login(email);
+            if (i % MEMBERS_PER_PROJECT == 0) {
+                projectId = send(post("/api/v1/projects", Map.of("name", "Load " + i), token), 201).get("id").asText();
+                ownerToken = token;
+                List<Map<String, Object>> tasks = new ArrayList<>();
+                for (int t = 0; t < SEED_TASKS; t++) {
+                    tasks.add(Map.of("title", "Seed task " + t, "labels", List.of("seed")));
+                }
+                send(post("/api/v1/projects/" + projectId + "/tasks/batch", Map.of("tasks", tasks), token), 201);
+            } else {
+                send(post("/api/v1/projects/" + projectId + "/members",
+                    Map.of("user_id", registered.get("id").asText(), "role", "member"), ownerToken), 201);
+            }
+            virtualUsers.add(new VirtualUser(i, email, token, projectId, new Random(seed + i)));
+        }
+        return virtualUsers;
+    }
+
+    private String login(String email) throws IOException, InterruptedException {
+        return send(post("/api/v1/auth/login", Map.of("email", email, "password", PASSWORD), null), 200)
+            .get("access_token").asText();
+    }
+
+    private HttpRequest.Builder request(String path, String token) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create("http://localhost:" + port + path))
+            .header("Content-Type", "application/json");
+        return token == null ? builder : builder.header("Authorization", "Bearer " + token);
+    }
+
+    private HttpRequest post(String path, Object body, String token) throws IOException {
+        return request(path, token).POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body))).build();
+    }
+
+    private JsonNode send(HttpRequest request, int expectedStatus) throws IOException, InterruptedException {
+        HttpResponse<byte[]> response = client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        if (response.statusCode() != expectedStatus) {
+            throw new IllegalStateException(request.method() + " " + request.uri() + " returned "
+                + response.statusCode() + ": " + new String(response.body()));
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private static String commit() {
+        try {
+            Process process = new ProcessBuilder("git", "rev-parse", "--short", "HEAD").redirectErrorStream(true).start();
+            String output = new String(process.getInputStream().readAllBytes()).trim();
+            return process.waitFor() == 0 && !output.isEmpty() ? output : "unknown";
+        } catch (IOException e) {
+            return "unknown";
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return "unknown";
+        }
+    }
+
+    /**
+     * 一个模拟客户端，只在自己的线程中运行，记录器无需同步
+     */
+    private class VirtualUser {
+        private final int index;
+        private final String email;
+        private final String projectId;
+        private final Random random;
+        private final Map<Scenario, LoadReport.Recorder> recorders = new EnumMap<>(Scenario.class);
+        private final List<String> taskIds = new ArrayList<>();
+        private String token;
+        private String etag;
+        private int labelSequence;
+
+        VirtualUser(int index, String email, String token, String projectId, Random random) {
+            this.index = index;
+            this.email = email;
+            this.token = token;
+            this.projectId = projectId;
+            this.random = random;
+            for (Scenario scenario : Scenario.values()) {
+                recorders.put(scenario, new LoadReport.Recorder());
+            }
+        }
+
+        Map<Scenario, LoadReport.Recorder> run(long measureFrom, long deadline) throws InterruptedException {
+            while (System.nanoTime() < deadline) {
+                Scenario scenario = taskIds.isEmpty() ? Scenario.BOARD_POLL : Scenario.pick(random);
+                long start = System.nanoTime();
+                boolean success;
+                try {
+                    success = execute(scenario);
+                } catch (IOException e) {
+                    success = false;
+                }
+                if (start >= measureFrom) {
+                    recorders.get(scenario).record(System.nanoTime() - start, success);
+                }
+            }
+            return recorders;
+        }
+
+        private boolean execute(Scenario scenario) throws IOException, InterruptedException {
+            String base = "/api/v1/projects/" + projectId;
+            return switch (scenario) {
+                case LOGIN -> {
+                    HttpResponse<byte[]> response = exchange(post("/api/v1/auth/login",
+                        Map.of("email", email, "password", PASSWORD), null));
+                    if (response.statusCode() == 200) {
+                        token = objectMapper.readTree(response.body()).get("access_token").asText();
+                    }
+                    yield response.statusCode() == 200;
+                }
+                case BOARD_POLL -> {
+                    HttpRequest.Builder builder = request(base + "/tasks?limit=" + BOARD_PAGE, token).GET();
+                    if (etag != null) {
+                        builder.header("If-None-Match", etag);
+                    }
+                    HttpResponse<byte[]> response = exchange(builder.build());
+                    if (response.statusCode() == 200) {
+                        etag = response.headers().firstValue("ETag").orElse(null);
+                        taskIds.clear();
+                        objectMapper.readTree(response.body()).get("tasks")
+                            .forEach(task -> taskIds.add(task.get("id").asText()));
+                    }
+                    yield response.statusCode() == 200 || response.statusCode() == 304;
+                }
+                case STATUS_PATCH -> {
+                    String taskId = taskIds.get(random.nextInt(taskIds.size()));
+                    String status = STATUSES[random.nextInt(STATUSES.length)];
+                    HttpRequest request = request(base + "/tasks/" + taskId + "/status", token)
+                        .method("PATCH", HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(Map.of("status", status))))
+                        .build();
+                    yield exchange(request).statusCode() == 200;
+                }
+                case BATCH_CREATE -> {
+                    List<Map<String, Object>> tasks = new ArrayList<>();
+                    for (int i = 0; i < BATCH_SIZE; i++) {
+                        tasks.add(Map.of("title", "Load task " + index + "-" + random.nextInt(1_000_000),
+                            "labels", List.of("load")));
+                    }
+                    yield exchange(post(base + "/tasks/batch", Map.of("tasks", tasks), token)).statusCode() == 201;
+                }
+                case LABEL_EDIT -> {
+                    // 新增一个标签后立即删除，标签总数保持稳定
+                    String label = "load-" + index + "-" + labelSequence++;
+                    boolean added = exchange(post(base + "/labels", Map.of("label", label), token)).statusCode() == 201;
+                    HttpRequest remove = request(base + "/labels", token)
+                        .method("DELETE", HttpRequest.BodyPublishers.ofByteArray(
+                            objectMapper.writeValueAsBytes(Map.of("labels", List.of(label)))))
+                        .build();
+                    yield added && exchange(remove).statusCode() == 200;
+                }
+            };
+        }
+
+        private HttpResponse<byte[]> exchange(HttpRequest request) throws IOException, InterruptedException {
+            return client.send(request, HttpResponse.BodyHandlers.ofByteArray());
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package build.loop.todo.load;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 压测结果汇总，每个场景统计吞吐量、延迟分位数和错误率，写成 JSON 便于跨提交对比
+ */
+class LoadReport {
+    private final Map<BoardLoadTests.Scenario, Recorder> totals = new EnumMap<>(BoardLoadTests.Scenario.class);
+
+    LoadReport(List<Map<BoardLoadTests.Scenario, Recorder>> perUser) {
+        for (BoardLoadTests.Scenario scenario : BoardLoadTests.Scenario.values()) {
+            Recorder merged = new Recorder();
+            perUser.forEach(recorders -> merged.merge(recorders.get(scenario)));
+            totals.put(scenario, merged);
+        }
+    }
+
+    Map<String, Object> toMap(Map<String, Object> run, Duration measured) {
+        Map<String, Object> scenarios = new LinkedHashMap<>();
+        totals.forEach((scenario, recorder) -> scenarios.put(scenario.key(), recorder.summary(measured)));
+        Map<String, Object> report = new LinkedHashMap<>(run);
+        report.put("finished_at", Instant.now().toString());
+        report.put("scenarios", scenarios);
+        return report;
+    }
+
+    Path write(Path file, Map<String, Object> run, Duration measured) throws IOException {
+        Files.createDirectories(file.getParent());
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT)
+            .writeValue(file.toFile(), toMap(run, measured));
+        return file;
+    }
+
+    String table(Duration measured) {
+        StringBuilder table = new StringBuilder(String.format("%-14s %8s %9s %8s %8s %8s %8s %7s%n",
+            "scenario", "ops", "ops/s", "p50 ms", "p95 ms", "p99 ms", "max ms", "errors"));
+        totals.forEach((scenario, recorder) -> {
+            Map<String, Object> summary = recorder.summary(measured);
+            table.append(String.format("%-14s %8d %9.1f %8.2f %8.2f %8.2f %8.2f %6.2f%%%n",
+                scenario.key(), summary.get("count"), summary.get("throughput_per_second"),
+                summary.get("p50_ms"), summary.get("p95_ms"), summary.get("p99_ms"), summary.get("max_ms"),
+                (double) summary.get("error_rate") * 100));
+        });
+        return table.toString();
+    }
+
+    /**
+     * 单个虚拟用户的单个场景的延迟记录，只由一个线程写入，结束后合并
+     */
+    static class Recorder {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        void record(long nanos, boolean success) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = nanos;
+            if (!success) {
+                errors++;
+            }
+        }
+
+        private void merge(Recorder other) {
+            for (int i = 0; i < other.count; i++) {
+                record(other.latencies[i], true);
+            }
+            errors += other.errors;
+        }
+
+        private Map<String, Object> summary(Duration measured) {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("count", count);
+            summary.put("errors", errors);
+            summary.put("error_rate", count == 0 ? 0.0 : round((double) errors / count));
+            summary.put("throughput_per_second", round(count / (measured.toNanos() / 1e9)));
+            summary.put("p50_ms", percentile(sorted, 0.50));
+            summary.put("p95_ms", percentile(sorted, 0.95));
+            summary.put("p99_ms", percentile(sorted, 0.99));
+            summary.put("max_ms", count == 0 ? 0.0 : round(sorted[count - 1] / 1e6));
+            return summary;
+        }
+
+        private static double percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return 0.0;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return round(sorted[Math.max(index, 0)] / 1e6);
+        }
+
+        private static double round(double value) {
+            return Math.round(value * 1000) / 1000.0;
+        }
+    }
+}
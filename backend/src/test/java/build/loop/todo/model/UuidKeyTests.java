@@ -0,0 +1,110 @@
+package build.loop.todo.model;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import build.loop.todo.util.Ids;
+import build.loop.todo.util.KeysetCursor;
+import build.loop.todo.util.PageCursor;
+import build.loop.todo.util.UUIDv7;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class UuidKeyTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UserWithProject owner;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.userWithProject("uuid");
+    }
+
+    @Test
+    void keyColumnsAreUuid() {
+        List<String> types = jdbcTemplate.queryForList("""
+                SELECT data_type FROM information_schema.columns
+                WHERE LOWER(table_name) = 'tasks' AND LOWER(column_name) IN ('id', 'project_id')
+                """, String.class);
+        assertThat(types).hasSize(2).allMatch(type -> type.equalsIgnoreCase("uuid"));
+
+        String id = UUIDv7.generateString();
+        assertThat(Ids.isValid(id)).isTrue();
+        assertThat(Ids.isValid("not-a-uuid")).isFalse();
+        // 写入 uuid 列后读回的字符串与生成时一致
+        String stored = jdbcTemplate.queryForObject(
+                "SELECT CAST(id AS VARCHAR) FROM projects WHERE id = CAST(? AS UUID)", String.class, owner.projectId());
+        assertThat(stored).isEqualTo(owner.projectId());
+    }
+
+    @Test
+    void malformedPathIdIsNotFound() throws Exception {
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", "not-a-uuid")
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.error.code").value("RESOURCE_NOT_FOUND"));
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks/{taskId}", owner.projectId(), "not-a-uuid")
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isNotFound());
+    }
+
+    @Test
+    void tamperedCursorIsRejected() throws Exception {
+        String pageCursor = Base64.getUrlEncoder().withoutPadding()
+                .encodeToString("2024-01-01T00:00|not-a-uuid".getBytes(StandardCharsets.UTF_8));
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", owner.projectId())
+                        .param("cursor", pageCursor)
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isBadRequest());
+
+        String keysetCursor = new KeysetCursor(List.of("2", "2024-01-01T00:00", "not-a-uuid")).encode();
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", owner.projectId())
+                        .param("cursor", keysetCursor)
+                        .param("sort", "-priority")
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void malformedBodyIdsAreIgnored() throws Exception {
+        mockMvc.perform(delete("/api/v1/projects/{id}/tasks", owner.projectId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"task_ids\": [\"not-a-uuid\"]}")
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.deleted_count").value(0));
+        // 创建时请求体里的 id 不会被采用
+        mockMvc.perform(post("/api/v1/projects/{id}/tasks", owner.projectId())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"id\": \"not-a-uuid\", \"title\": \"t\", \"status\": \"todo\", \"priority\": \"low\"}")
+                        .header("Authorization", fixtures.bearer(owner.user())))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.id").value(not("not-a-uuid")));
+    }
+}
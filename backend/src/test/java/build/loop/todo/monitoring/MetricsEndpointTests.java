@@ -0,0 +1,67 @@
+package build.loop.todo.monitoring;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import io.micrometer.prometheusmetrics.PrometheusMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Prometheus 输出包含按路由的请求耗时直方图、Hibernate 统计和 JWT 校验耗时
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@AutoConfigureObservability
+class MetricsEndpointTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PrometheusMeterRegistry prometheusMeterRegistry;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Test
+    void scrapeExposesRouteHistogramsAndHibernateStatistics() throws Exception {
+        UserWithProject fixture = fixtures.userWithProject("metrics");
+
+        mockMvc.perform(get("/api/v1/projects/{projectId}/tasks", fixture.projectId())
+                .header("Authorization", fixtures.bearer(fixture.user())))
+            .andExpect(status().isOk());
+
+        String scrape = prometheusMeterRegistry.scrape();
+        assertThat(scrape)
+            .containsPattern("http_server_requests_seconds_bucket\\{[^}]*uri=\"/api/v1/projects/\\{projectId}/tasks\"")
+            .contains("hibernate_statements_total")
+            .contains("hibernate_entities_loads_total")
+            .contains("hibernate_collections_fetches_total")
+            .contains("hibernate_second_level_cache_requests_total")
+            .contains("jwt_verification_seconds_count{cache=\"miss\",outcome=\"success\"}")
+            .contains("jvm_gc_memory_allocated_bytes_total");
+    }
+
+    @Test
+    void healthReportsDatabaseRoundTrip() throws Exception {
+        mockMvc.perform(get("/api/v1/system/health"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("UP"))
+            .andExpect(jsonPath("$.database.status").value("UP"))
+            .andExpect(jsonPath("$.database.round_trip_ms").isNumber());
+    }
+
+    @Test
+    void publicHealthOmitsFailureReason() {
+        DatabaseRoundTripProbe.Result down = new DatabaseRoundTripProbe.Result(false, 1_000_000, 0, "password authentication failed");
+        assertThat(down.toMap()).containsEntry("status", "DOWN").doesNotContainKey("error");
+    }
+}
@@ -0,0 +1,134 @@
+package build.loop.todo.monitoring;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import build.loop.todo.model.dto.TaskBatchResponse;
+import build.loop.todo.model.dto.TaskPatch;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.not;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 列表接口的 SQL 语句预算，查询数量回退时构建失败
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class SqlStatementBudgetTests {
+    private static final int TASK_COUNT = 500;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    private String projectId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        UserWithProject fixture = fixtures.userWithProject("budget");
+        projectId = fixture.projectId();
+
+        List<Task> tasks = new ArrayList<>(TASK_COUNT);
+        for (int i = 0; i < TASK_COUNT; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setLabels(new ArrayList<>(List.of("label-" + (i % 5), "shared")));
+            tasks.add(task);
+        }
+        taskService.batchCreate(projectId, tasks);
+        token = fixtures.bearer(fixture.user());
+    }
+
+    @Test
+    void taskListStaysWithinBudget() throws Exception {
+        assertBudget("/api/v1/projects/" + projectId + "/tasks", 3);
+    }
+
+    @Test
+    void pagedTaskListStaysWithinBudget() throws Exception {
+        assertBudget("/api/v1/projects/" + projectId + "/tasks?limit=200", 3);
+    }
+
+    @Test
+    void memberListStaysWithinBudget() throws Exception {
+        assertBudget("/api/v1/projects/" + projectId + "/members", 3);
+    }
+
+    @Test
+    void projectListStaysWithinBudget() throws Exception {
+        assertBudget("/api/v1/projects", 3);
+    }
+
+    @Test
+    void unchangedTaskListAnswersNotModified() throws Exception {
+        String url = "/api/v1/projects/" + projectId + "/tasks";
+        String etag = mockMvc.perform(get(url).header("Authorization", token))
+            .andExpect(status().isOk())
+            .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+        assertThat(etag).isNotNull();
+
+        // 命中 ETag 时只读取版本号，不加载任务
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified());
+            assertThat(scope.getStatistics().getRoundTrips()).isEqualTo(1);
+        }
+
+        String taskId = taskService.findAllByProject(projectId, null, 1).getTasks().getFirst().getId();
+        taskService.patch(projectId, taskId, TaskPatch.ofStatus("done"));
+        mockMvc.perform(get(url).header("Authorization", token).header(HttpHeaders.IF_NONE_MATCH, etag))
+            .andExpect(status().isOk())
+            .andExpect(header().string(HttpHeaders.ETAG, not(etag)));
+    }
+
+    @Test
+    void batchCreateReportsMeasuredStatements() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            Task task = new Task();
+            task.setTitle("Imported " + i);
+            task.setLabels(new ArrayList<>(List.of("shared", "imported")));
+            tasks.add(task);
+        }
+        TaskBatchResponse.Stats stats = taskService.batchCreate(projectId, tasks).getStats();
+        // 2 个新标签、100 条任务和 200 条任务标签，项目标签、任务和任务标签都按批写入
+        assertThat(stats.getStatements()).isGreaterThanOrEqualTo(302);
+        assertThat(stats.getRoundTrips()).isLessThan(stats.getStatements() / 10);
+    }
+
+    private void assertBudget(String url, int maxRoundTrips) throws Exception {
+        // 先请求一次预热成员权限缓存，只统计稳态下的数据库往返次数
+        mockMvc.perform(get(url).header("Authorization", token)).andExpect(status().isOk());
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            mockMvc.perform(get(url).header("Authorization", token))
+                .andExpect(status().isOk())
+                .andExpect(header().exists(SqlStatementFilter.STATEMENTS_HEADER))
+                .andExpect(header().exists(SqlStatementFilter.ROUND_TRIPS_HEADER));
+            SqlStatistics statistics = scope.getStatistics();
+            assertThat(statistics.getRoundTrips())
+                .as("round trips made by GET %s", url)
+                .isLessThanOrEqualTo(maxRoundTrips);
+            assertThat(statistics.getRepeatedShapes(1)).isEmpty();
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package build.loop.todo.search;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.model.dto.TaskFilter;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.service.ProjectService;
+import build.loop.todo.service.TaskService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务全文搜索的排序、前缀匹配、中文分词与增量更新
+ */
+@SpringBootTest
+class TaskSearchTests {
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = fixtures.userWithProject("search").projectId();
+    }
+
+    @Test
+    void ranksTitleMatchesAndSupportsPrefixAndChinese() {
+        Task docs = createTask("Write docs", "Explain the login flow", "docs");
+        Task login = createTask("Implement user login", "", "api");
+        Task register = createTask("修复用户注册问题", "注册页面报错", "bug");
+
+        assertThat(titles("login")).containsExactly(login.getTitle(), docs.getTitle());
+        assertThat(titles("implement log")).containsExactly(login.getTitle());
+        assertThat(titles("注册")).containsExactly(register.getTitle());
+        assertThat(titles("用户")).containsExactly(register.getTitle());
+        assertThat(titles("payment")).isEmpty();
+    }
+
+    @Test
+    void indexFollowsTaskAndLabelChanges() {
+        Task task = createTask("Draft release notes", "", "todo-later");
+
+        Task update = new Task();
+        update.setTitle("Publish release notes");
+        update.setLabels(new ArrayList<>(task.getLabels()));
+        taskService.update(projectId, task.getId(), update);
+        assertThat(titles("draft")).isEmpty();
+        assertThat(titles("publish")).containsExactly("Publish release notes");
+
+        projectService.renameProjectLabel(projectId, "todo-later", "backlog");
+        assertThat(titles("backlog")).containsExactly("Publish release notes");
+        assertThat(titles("later")).isEmpty();
+
+        taskService.deleteById(projectId, task.getId());
+        assertThat(titles("publish")).isEmpty();
+    }
+
+    @Test
+    void renameRemovesSourceLabelFromTasksThatAlreadyHaveTarget() {
+        Task task = createTask("Triage inbox", "", "todo-later");
+        // 直接给任务加上尚不是项目标签的 backlog
+        Task update = new Task();
+        update.setTitle(task.getTitle());
+        update.setLabels(new ArrayList<>(List.of("todo-later", "backlog")));
+        taskService.update(projectId, task.getId(), update);
+
+        projectService.renameProjectLabel(projectId, "todo-later", "backlog");
+        TaskFilter filter = TaskFilter.of(null, null, List.of("todo-later"), null, null, null, null, null);
+        assertThat(taskService.findAllByProject(projectId, filter, null, null).getTasks()).extracting(Task::getTitle).isEmpty();
+        assertThat(titles("later")).isEmpty();
+        assertThat(titles("backlog")).containsExactly("Triage inbox");
+    }
+
+    private Task createTask(String title, String description, String label) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setLabels(new ArrayList<>(List.of(label)));
+        return taskService.create(projectId, task);
+    }
+
+    private List<String> titles(String query) {
+        return taskService.search(projectId, query, null).getTasks().stream().map(Task::getTitle).toList();
+    }
+}
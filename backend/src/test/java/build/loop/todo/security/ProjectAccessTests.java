@@ -0,0 +1,82 @@
+package build.loop.todo.security;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.model.entity.User;
+import build.loop.todo.service.ProjectService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class ProjectAccessTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ProjectService projectService;
+
+    private User owner;
+    private User other;
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        owner = fixtures.user("owner");
+        other = fixtures.user("other");
+        projectId = fixtures.project(owner);
+    }
+
+    @Test
+    void nonMemberIsForbidden() throws Exception {
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/projects/{id}", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void membershipChangesInvalidateCachedRole() throws Exception {
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+
+        projectService.addProjectMember(projectId, other.getId(), "member");
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isOk());
+        // 普通成员不能删除项目
+        mockMvc.perform(delete("/api/v1/projects/{id}", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+
+        projectService.removeProjectMember(projectId, other.getId());
+        mockMvc.perform(get("/api/v1/projects/{id}/tasks", projectId).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void batchDeleteOnlyRemovesOwnedProjects() throws Exception {
+        String othersProject = fixtures.project(other);
+        mockMvc.perform(delete("/api/v1/projects")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"project_ids\": [\"" + projectId + "\", \"" + othersProject + "\"]}")
+                .header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.deleted_count").value(1));
+
+        mockMvc.perform(get("/api/v1/projects/{id}", projectId).header("Authorization", fixtures.bearer(owner)))
+            .andExpect(status().isOk());
+        mockMvc.perform(get("/api/v1/projects/{id}", othersProject).header("Authorization", fixtures.bearer(other)))
+            .andExpect(status().isForbidden());
+    }
+}
@@ -0,0 +1,69 @@
+package build.loop.todo.service;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.monitoring.SqlStatementCounter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 项目和标签走二级缓存，原生 SQL 修改标签后缓存随之失效
+ */
+@SpringBootTest
+class ProjectLabelCacheTests {
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private TaskService taskService;
+
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = fixtures.userWithProject("cache").projectId();
+        projectService.addProjectLabel(projectId, "bug");
+    }
+
+    @Test
+    void cachedLabelsAreReadWithoutStatements() {
+        projectService.getProjectLabels(projectId);
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            assertThat(projectService.getProjectLabels(projectId)).containsExactly("bug");
+            assertThat(scope.getStatistics().getRoundTrips()).isZero();
+        }
+    }
+
+    @Test
+    void nativeLabelUpdatesEvictCachedLabels() {
+        assertThat(projectService.getProjectLabels(projectId)).containsExactly("bug");
+        projectService.renameProjectLabel(projectId, "bug", "defect");
+        assertThat(projectService.getProjectLabels(projectId)).containsExactly("defect");
+        projectService.removeProjectLabels(projectId, List.of("defect"));
+        assertThat(projectService.getProjectLabels(projectId)).isEmpty();
+    }
+
+    @Test
+    void taskLabelsAreAddedToProjectOnce() {
+        assertThat(projectService.getProjectLabels(projectId)).containsExactly("bug");
+        Task task = new Task();
+        task.setTitle("Labelled");
+        task.setLabels(new ArrayList<>(List.of("bug", "ui")));
+        taskService.create(projectId, task);
+        assertThat(projectService.getProjectLabels(projectId)).containsExactlyInAnyOrder("bug", "ui");
+
+        projectService.addProjectLabel(projectId, "ui");
+        assertThat(projectService.addProjectLabels(projectId, List.of("ui", "api"))).isEqualTo(1);
+        assertThat(projectService.getProjectLabels(projectId)).containsExactlyInAnyOrder("bug", "ui", "api");
+    }
+}
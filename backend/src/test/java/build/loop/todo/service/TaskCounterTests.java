@@ -0,0 +1,89 @@
+package build.loop.todo.service;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.model.dto.TaskPatch;
+import build.loop.todo.model.dto.TaskStatsResponse;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务写入时同步维护的计数与重新统计的结果一致
+ */
+@SpringBootTest
+class TaskCounterTests {
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private ProjectService projectService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = fixtures.userWithProject("stats").projectId();
+    }
+
+    @Test
+    void countersFollowTaskWrites() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 4; i++) {
+            Task task = new Task();
+            task.setTitle("Task " + i);
+            task.setPriority(i % 2 == 0 ? TaskPriority.HIGH : TaskPriority.LOW);
+            tasks.add(task);
+        }
+        List<String> ids = taskService.batchCreate(projectId, tasks).getTasks().stream().map(Task::getId).toList();
+        Task single = new Task();
+        single.setTitle("Single");
+        taskService.create(projectId, single);
+
+        taskService.patch(projectId, ids.get(0), TaskPatch.ofStatus("done"));
+        taskService.patch(projectId, ids.get(1), TaskPatch.ofPriority("medium"));
+        taskService.deleteByIds(projectId, List.of(ids.get(2), ids.get(3)));
+
+        TaskStatsResponse stats = taskService.getStats(projectId);
+        assertThat(stats.getTotal()).isEqualTo(3);
+        assertThat(stats.getByStatus()).containsEntry("done", 1L);
+        assertThat(stats.getByPriority()).containsEntry("high", 1L).containsEntry("medium", 2L).containsEntry("low", 0L);
+        assertThat(stats.getByStatusAndPriority().get("done")).containsEntry("high", 1L);
+
+        // 重新统计不应发现偏差，版本号也不变
+        long revision = projectService.getRevision(projectId);
+        taskService.reconcileCounters(projectId);
+        assertThat(taskService.getStats(projectId)).usingRecursiveComparison().isEqualTo(stats);
+        assertThat(projectService.getRevision(projectId)).isEqualTo(revision);
+    }
+
+    @Test
+    void reconcileFixesDriftAndBumpsRevision() {
+        Task task = new Task();
+        task.setTitle("Drift");
+        taskService.create(projectId, task);
+        TaskStatsResponse stats = taskService.getStats(projectId);
+
+        jdbcTemplate.update("UPDATE task_counters SET task_count = task_count + 5 WHERE project_id = CAST(? AS UUID)",
+                projectId);
+        long revision = projectService.getRevision(projectId);
+
+        taskService.reconcileCounters(projectId);
+        assertThat(taskService.getStats(projectId)).usingRecursiveComparison().isEqualTo(stats);
+        assertThat(projectService.getRevision(projectId)).isGreaterThan(revision);
+    }
+}
@@ -0,0 +1,79 @@
+package build.loop.todo.service;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.model.dto.TaskFilter;
+import build.loop.todo.model.dto.TaskListResponse;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 任务列表的服务端过滤、按权重排序与 keyset 分页
+ */
+@SpringBootTest
+class TaskFilterTests {
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    private String projectId;
+
+    @BeforeEach
+    void setUp() {
+        projectId = fixtures.userWithProject("filter").projectId();
+
+        createTask("a", TaskStatus.TODO, TaskPriority.LOW, "bug");
+        createTask("b", TaskStatus.DONE, TaskPriority.HIGH, "feature");
+        createTask("c", TaskStatus.TODO, TaskPriority.HIGH, "bug");
+        createTask("d", TaskStatus.IN_PROGRESS, TaskPriority.MEDIUM, "bug");
+        createTask("e", TaskStatus.TODO, TaskPriority.MEDIUM, "docs");
+    }
+
+    @Test
+    void filtersAndSortsByWeightAcrossPages() {
+        TaskFilter filter = TaskFilter.of(List.of("todo", "done"), null, null, null, null, null, null, "-priority");
+
+        List<String> titles = new ArrayList<>();
+        String cursor = null;
+        do {
+            TaskListResponse page = taskService.findAllByProject(projectId, filter, cursor, 2);
+            page.getTasks().forEach(task -> titles.add(task.getTitle()));
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        // 同一优先级按创建时间升序
+        assertThat(titles).containsExactly("b", "c", "e", "a");
+    }
+
+    @Test
+    void filtersByLabelAndSortsByStatusWeight() {
+        TaskFilter filter = TaskFilter.of(null, List.of("low", "medium", "high"), List.of("bug", "docs"),
+            null, null, null, null, "-status");
+
+        List<String> titles = taskService.findAllByProject(projectId, filter, null, null).getTasks().stream()
+            .map(Task::getTitle)
+            .toList();
+
+        assertThat(titles).containsExactly("d", "a", "c", "e");
+    }
+
+    private void createTask(String title, TaskStatus status, TaskPriority priority, String label) {
+        Task task = new Task();
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setLabels(new ArrayList<>(List.of(label)));
+        taskService.create(projectId, task);
+    }
+}
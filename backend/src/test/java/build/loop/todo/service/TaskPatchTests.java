@@ -0,0 +1,113 @@
+package build.loop.todo.service;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import build.loop.todo.model.dto.TaskStatsResponse;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.monitoring.SqlStatementCounter;
+import build.loop.todo.monitoring.SqlStatistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * JSON Merge Patch 只更新给出的字段，未给出标签时不改写标签表
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+class TaskPatchTests {
+    private static final String MERGE_PATCH = "application/merge-patch+json";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    private String projectId;
+    private String taskId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        UserWithProject fixture = fixtures.userWithProject("patch");
+        projectId = fixture.projectId();
+        Task task = new Task();
+        task.setTitle("Original");
+        task.setDescription("Keep me");
+        task.setLabels(new ArrayList<>(List.of("bug", "ui")));
+        taskId = taskService.create(projectId, task).getId();
+        token = fixtures.bearer(fixture.user());
+    }
+
+    @Test
+    void titleOnlyPatchLeavesOtherFieldsAndLabels() throws Exception {
+        // 预热成员权限缓存
+        patchTask("{\"title\": \"Warm up\"}").andExpect(status().isOk());
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            patchTask("{\"title\": \"Renamed\"}")
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.title").value("Renamed"))
+                .andExpect(jsonPath("$.description").value("Keep me"))
+                .andExpect(jsonPath("$.status").value("todo"))
+                .andExpect(jsonPath("$.labels", contains("bug", "ui")));
+            SqlStatistics statistics = scope.getStatistics();
+            // UPDATE、读取标签、更新项目版本号
+            assertThat(statistics.getRoundTrips()).isLessThanOrEqualTo(3);
+            assertThat(statistics.getShapes().keySet())
+                .noneMatch(shape -> shape.toLowerCase().matches("(delete from|insert into) task_labels.*"));
+        }
+    }
+
+    @Test
+    void patchReplacesLabelsAndMovesCounters() throws Exception {
+        patchTask("{\"status\": \"done\", \"priority\": \"high\", \"description\": null, \"labels\": [\"api\"]}")
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.title").value("Original"))
+            .andExpect(jsonPath("$.description").value(""))
+            .andExpect(jsonPath("$.status").value("done"))
+            .andExpect(jsonPath("$.priority").value("high"))
+            .andExpect(jsonPath("$.labels", contains("api")));
+
+        mockMvc.perform(get("/api/v1/projects/{projectId}/tasks/{taskId}", projectId, taskId)
+                .header("Authorization", token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.description").value(""))
+            .andExpect(jsonPath("$.labels", contains("api")));
+        TaskStatsResponse stats = taskService.getStats(projectId);
+        assertThat(stats.getByStatusAndPriority().get("done")).containsEntry("high", 1L);
+        assertThat(stats.getByStatus()).containsEntry("todo", 0L);
+    }
+
+    @Test
+    void invalidPatchesAreRejected() throws Exception {
+        patchTask("{\"title\": null}").andExpect(status().isBadRequest());
+        patchTask("{\"status\": \"unknown\"}").andExpect(status().isBadRequest());
+        patchTask("{\"id\": \"other\"}").andExpect(status().isBadRequest());
+        assertThat(taskService.findById(taskId).orElseThrow().getTitle()).isEqualTo("Original");
+    }
+
+    private ResultActions patchTask(String body) throws Exception {
+        return mockMvc.perform(patch("/api/v1/projects/{projectId}/tasks/{taskId}", projectId, taskId)
+            .header("Authorization", token)
+            .contentType(MERGE_PATCH)
+            .content(body));
+    }
+}
@@ -0,0 +1,145 @@
+package build.loop.todo.service;
+
+import build.loop.todo.TestFixtures;
+import build.loop.todo.TestFixtures.UserWithProject;
+import build.loop.todo.model.dto.TaskStatsResponse;
+import build.loop.todo.model.entity.Task;
+import build.loop.todo.model.entity.TaskPriority;
+import build.loop.todo.model.entity.TaskStatus;
+import build.loop.todo.monitoring.SqlStatementCounter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 合并写入：窗口内的修改不访问数据库，其他请求和应用关闭时写入积压修改，持续失败的修改有上限地重试后丢弃
+ * 窗口设为一分钟，测试期间不会自动写入
+ */
+@SpringBootTest(properties = {
+    "tasks.write-coalescing.enabled=true",
+    "tasks.write-coalescing.window=60000"
+})
+@AutoConfigureMockMvc
+class TaskWriteCoalescerTests {
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TestFixtures fixtures;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private String projectId;
+    private String taskId;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        UserWithProject fixture = fixtures.userWithProject("coalesce");
+        projectId = fixture.projectId();
+        Task task = new Task();
+        task.setTitle("Drag me");
+        taskId = taskService.create(projectId, task).getId();
+        token = fixtures.bearer(fixture.user());
+    }
+
+    @Test
+    void burstIsMergedAndFlushedBeforeReads() throws Exception {
+        patchStatus("in progress");
+        // 同一任务的后续修改只改内存中的记录
+        try (SqlStatementCounter.Scope scope = SqlStatementCounter.open()) {
+            patchStatus("done");
+            mockMvc.perform(patch("/api/v1/projects/{projectId}/tasks/{taskId}/priority", projectId, taskId)
+                    .header("Authorization", token)
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content("{\"priority\": \"high\"}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("done"))
+                .andExpect(jsonPath("$.priority").value("high"));
+            assertThat(scope.getStatistics().getRoundTrips()).isZero();
+        }
+        assertThat(taskService.findById(taskId).orElseThrow().getStatus()).isEqualTo(TaskStatus.TODO);
+
+        // 读取前写入积压修改，只移动一次计数
+        mockMvc.perform(get("/api/v1/projects/{projectId}/tasks/{taskId}", projectId, taskId)
+                .header("Authorization", token))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value("done"))
+            .andExpect(jsonPath("$.priority").value("high"));
+        Task stored = taskService.findById(taskId).orElseThrow();
+        assertThat(stored.getStatus()).isEqualTo(TaskStatus.DONE);
+        assertThat(stored.getPriority()).isEqualTo(TaskPriority.HIGH);
+        TaskStatsResponse stats = taskService.getStats(projectId);
+        assertThat(stats.getTotal()).isEqualTo(1);
+        assertThat(stats.getByStatusAndPriority().get("done")).containsEntry("high", 1L);
+        assertThat(stats.getByStatus()).containsEntry("todo", 0L).containsEntry("in progress", 0L);
+    }
+
+    @Test
+    void pendingWritesAreFlushedOnShutdown() {
+        // 单独创建实例，关闭它不影响共享的测试上下文
+        TaskWriteCoalescer coalescer = new TaskWriteCoalescer(
+            taskService, transactionManager, new SimpleMeterRegistry(), true, 60_000, 5);
+        assertThat(coalescer.updateStatus(projectId, taskId, "canceled").getStatus()).isEqualTo(TaskStatus.CANCELED);
+        assertThat(taskService.findById(taskId).orElseThrow().getStatus()).isEqualTo(TaskStatus.TODO);
+
+        coalescer.shutdown();
+        assertThat(taskService.findById(taskId).orElseThrow().getStatus()).isEqualTo(TaskStatus.CANCELED);
+    }
+
+    @Test
+    void persistentlyFailingWritesAreDroppedAfterMaxAttempts() {
+        TaskService failing = mock(TaskService.class);
+        when(failing.findById(any())).thenAnswer(invocation -> taskService.findById(invocation.getArgument(0)));
+        doThrow(new IllegalStateException("database unavailable"))
+            .when(failing).applyCoalescedChanges(any(), any(), any());
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        TaskWriteCoalescer coalescer = new TaskWriteCoalescer(
+            failing, transactionManager, registry, true, 60_000, 2);
+        try {
+            coalescer.updateStatus(projectId, taskId, "done");
+            // 失败不会抛给调用方，达到上限后丢弃积压修改
+            coalescer.flush(projectId);
+            assertThat(registry.counter("tasks.write.dropped").count()).isZero();
+            coalescer.flush(projectId);
+            assertThat(registry.counter("tasks.write.dropped").count()).isEqualTo(1);
+
+            coalescer.flush(projectId);
+            verify(failing, times(2)).applyCoalescedChanges(any(), any(), any());
+            assertThat(taskService.findById(taskId).orElseThrow().getStatus()).isEqualTo(TaskStatus.TODO);
+        } finally {
+            coalescer.shutdown();
+        }
+    }
+
+    private void patchStatus(String value) throws Exception {
+        mockMvc.perform(patch("/api/v1/projects/{projectId}/tasks/{taskId}/status", projectId, taskId)
+                .header("Authorization", token)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content("{\"status\": \"" + value + "\"}"))
+            .andExpect(status().isOk())
+            .andExpect(jsonPath("$.status").value(value));
+    }
+}
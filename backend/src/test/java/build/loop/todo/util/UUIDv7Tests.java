@@ -0,0 +1,57 @@
+package build.loop.todo.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UUIDv7Tests {
+    private static final int THREADS = 8;
+    private static final int PER_THREAD = 20_000;
+
+    @Test
+    void idsAreStrictlyIncreasingAcrossThreads() throws Exception {
+        Set<String> seen = ConcurrentHashMap.newKeySet();
+        try (ExecutorService executor = Executors.newFixedThreadPool(THREADS)) {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < THREADS; t++) {
+                futures.add(executor.submit(() -> {
+                    // 同一线程先后取得的 id 必然按生成顺序排列，字符串顺序与数值顺序一致
+                    String previous = "";
+                    for (int i = 0; i < PER_THREAD; i++) {
+                        String id = UUIDv7.generateString();
+                        assertThat(id).isGreaterThan(previous);
+                        assertThat(seen.add(id)).isTrue();
+                        previous = id;
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        assertThat(seen).hasSize(THREADS * PER_THREAD);
+    }
+
+    @Test
+    void stringEncodingMatchesUuidFormat() {
+        for (int i = 0; i < 1000; i++) {
+            UUID uuid = UUIDv7.generate();
+            assertThat(uuid.version()).isEqualTo(7);
+            assertThat(uuid.variant()).isEqualTo(2);
+
+            byte[] buffer = new byte[36];
+            UUIDv7.encode(uuid.getMostSignificantBits(), uuid.getLeastSignificantBits(), buffer, 0);
+            assertThat(new String(buffer)).isEqualTo(uuid.toString());
+            assertThat(UUID.fromString(UUIDv7.generateString()).version()).isEqualTo(7);
+        }
+    }
+}